@@ -0,0 +1,53 @@
+package fr.cirad.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors of the requests to one endpoint.
+ */
+class LatencyRecorder {
+
+    final String endpoint;
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * The latencies at the given percentiles in milliseconds, by the nearest rank method.
+     */
+    synchronized double[] percentiles(double... percentiles) {
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        var values = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            if (count > 0) {
+                int rank = (int) Math.ceil(percentiles[i] / 100 * count);
+                values[i] = sorted[Math.max(rank, 1) - 1] / 1_000_000d;
+            }
+        }
+        return values;
+    }
+}
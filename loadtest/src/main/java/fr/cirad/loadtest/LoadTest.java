@@ -0,0 +1,264 @@
+package fr.cirad.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Drives concurrent users against a running instance. Each user loops over solve, poll and stop
+ * requests drawn from the configured mix, then the throughput and the latency percentiles of
+ * each endpoint are reported, along with the heap and CPU usage of the instance when its pid is
+ * given.
+ *
+ * <pre>
+ * --url        http://localhost:8080
+ * --users      10
+ * --duration   60 (seconds)
+ * --mix        solve=1,poll=8,stop=1
+ * --think-time 100 (milliseconds between the requests of a user)
+ * --problem    src/test/resources/default-problem.json
+ * --cache      let identical problems share a job, each solve is a new job otherwise
+ * --pid        the pid of the instance, to sample its heap, CPU and resident memory
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final String SOLVE = "solve";
+    private static final String POLL = "poll";
+    private static final String STOP = "stop";
+
+    private static final Pattern SOLUTION_ID =
+            Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+
+    // The instance keeps the 50 last solutions, only the most recent jobs are polled
+    private static final int MAX_JOBS = 40;
+
+    private final HttpClient client =
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+    private final String problem;
+    private final boolean cache;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private final long thinkTimeMillis;
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final ConcurrentLinkedDeque<String> jobs = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<String> submittedJobs = new ConcurrentLinkedDeque<>();
+
+    LoadTest(String baseUrl, String problem, boolean cache, Map<String, Integer> mix,
+            long thinkTimeMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1)
+                : baseUrl;
+        this.problem = problem;
+        this.cache = cache;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.thinkTimeMillis = thinkTimeMillis;
+        for (var endpoint : List.of(SOLVE, POLL, STOP)) {
+            recorders.put(endpoint, new LatencyRecorder(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        var loadTest = new LoadTest(options.getOrDefault("url", "http://localhost:8080"),
+                Files.readString(Path.of(options.getOrDefault("problem",
+                        "src/test/resources/default-problem.json"))),
+                options.containsKey("cache"),
+                parseMix(options.getOrDefault("mix", "solve=1,poll=8,stop=1")),
+                Long.parseLong(options.getOrDefault("think-time", "100")));
+        int users = Integer.parseInt(options.getOrDefault("users", "10"));
+        var duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+
+        ProcessSampler sampler = null;
+        if (options.containsKey("pid")) {
+            sampler = new ProcessSampler(Long.parseLong(options.get("pid")));
+            sampler.start();
+        }
+        System.out.printf("%d users for %d s against %s, mix %s%n", users, duration.toSeconds(),
+                loadTest.baseUrl, loadTest.mix);
+        long elapsedNanos = loadTest.run(users, duration);
+        if (sampler != null) {
+            sampler.stop();
+        }
+        loadTest.stopSubmittedJobs();
+
+        System.out.print(loadTest.report(elapsedNanos));
+        if (sampler != null) {
+            System.out.print(sampler.report());
+        }
+    }
+
+    long run(int users, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    runNextRequest();
+                    try {
+                        Thread.sleep(thinkTimeMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        // Lets the last requests finish, but not the ones stuck on a hanging instance
+        if (!executor.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void runNextRequest() {
+        var endpoint = nextEndpoint();
+        var id = jobs.peekLast();
+        if (id == null || endpoint.equals(SOLVE)) {
+            solve();
+            return;
+        }
+        // Any of the recent jobs
+        var recentJobs = new ArrayList<>(jobs);
+        id = recentJobs.get(ThreadLocalRandom.current().nextInt(recentJobs.size()));
+        if (endpoint.equals(POLL)) {
+            send(POLL, HttpRequest.newBuilder(URI.create(baseUrl + "/api/committeeSolution/" + id))
+                    .GET());
+        } else {
+            send(STOP, HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/api/committeeSolution/stopSolving/" + id))
+                    .GET());
+        }
+    }
+
+    private void solve() {
+        var body = send(SOLVE,
+                HttpRequest
+                        .newBuilder(URI.create(baseUrl + "/api/committeeSolution/solve"
+                                + (cache ? "" : "?noCache=true")))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(problem)));
+        if (body == null) {
+            return;
+        }
+        var matcher = SOLUTION_ID.matcher(body);
+        if (matcher.find()) {
+            jobs.addLast(matcher.group(1));
+            submittedJobs.addLast(matcher.group(1));
+            while (jobs.size() > MAX_JOBS) {
+                jobs.pollFirst();
+            }
+        }
+    }
+
+    // Returns the body of a successful response, null otherwise
+    private String send(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            var response = client.send(request.timeout(Duration.ofSeconds(60)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            recorders.get(endpoint).record(System.nanoTime() - start, success);
+            return success ? response.body() : null;
+        } catch (IOException e) {
+            recorders.get(endpoint).record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String nextEndpoint() {
+        int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (var weight : mix.entrySet()) {
+            draw -= weight.getValue();
+            if (draw < 0) {
+                return weight.getKey();
+            }
+        }
+        return SOLVE;
+    }
+
+    // The jobs left solving would slow down the next run
+    private void stopSubmittedJobs() {
+        for (var id : submittedJobs) {
+            try {
+                var uri = URI.create(baseUrl + "/api/committeeSolution/stopSolving/" + id);
+                client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET()
+                        .build(), HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                // Already gone
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        var report = new StringBuilder();
+        report.append(String.format("%-6s %8s %7s %9s %9s %9s %9s%n", "", "requests", "errors",
+                "req/s", "p50 ms", "p95 ms", "p99 ms"));
+        int total = 0;
+        for (var recorder : recorders.values()) {
+            var percentiles = recorder.percentiles(50, 95, 99);
+            total += recorder.count();
+            report.append(String.format("%-6s %8d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                    recorder.endpoint, recorder.count(), recorder.errors(),
+                    recorder.count() / seconds, percentiles[0], percentiles[1], percentiles[2]));
+        }
+        report.append(String.format("%-6s %8d %7s %9.1f%n", "total", total, "", total / seconds));
+        return report.toString();
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument (" + args[i] + ")");
+            }
+            var name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (var part : value.split(",")) {
+            var weight = part.split("=");
+            if (weight.length != 2 || !List.of(SOLVE, POLL, STOP).contains(weight[0].trim())) {
+                throw new IllegalArgumentException(
+                        "Invalid mix (" + value + "), expected e.g. solve=1,poll=8,stop=1");
+            }
+            mix.put(weight[0].trim(), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix (" + value + ") has no request");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,158 @@
+package fr.cirad.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the heap, CPU and resident memory of the process under test every second. The heap is
+ * read with jstat, so it must be a JVM run by the same user. CPU and resident memory are read
+ * from /proc, so on Linux only.
+ */
+class ProcessSampler {
+
+    private final long pid;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final long clockTicks = clockTicks();
+
+    private long firstSampleNanos;
+    private long firstCpuTicks = -1;
+    private long lastSampleNanos;
+    private long lastCpuTicks;
+    private double maxCpuPercent;
+    private long maxHeapKb;
+    private long heapKbTotal;
+    private int heapSamples;
+    private long maxRssKb;
+
+    ProcessSampler(long pid) {
+        this.pid = pid;
+    }
+
+    void start() {
+        executor.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        long cpuTicks = cpuTicks();
+        if (cpuTicks >= 0) {
+            if (firstCpuTicks < 0) {
+                firstCpuTicks = cpuTicks;
+                firstSampleNanos = now;
+            } else {
+                maxCpuPercent = Math.max(maxCpuPercent,
+                        cpuPercent(cpuTicks - lastCpuTicks, now - lastSampleNanos));
+            }
+            lastCpuTicks = cpuTicks;
+            lastSampleNanos = now;
+        }
+        long heapKb = heapUsedKb();
+        if (heapKb >= 0) {
+            maxHeapKb = Math.max(maxHeapKb, heapKb);
+            heapKbTotal += heapKb;
+            heapSamples++;
+        }
+        maxRssKb = Math.max(maxRssKb, rssKb());
+    }
+
+    synchronized String report() {
+        var report = new StringBuilder("Process ").append(pid).append('\n');
+        if (firstCpuTicks >= 0 && lastSampleNanos > firstSampleNanos) {
+            // 100 % is one core
+            report.append(String.format("  CPU        avg %6.1f %%   max %6.1f %%%n",
+                    cpuPercent(lastCpuTicks - firstCpuTicks, lastSampleNanos - firstSampleNanos),
+                    maxCpuPercent));
+        }
+        if (heapSamples > 0) {
+            report.append(String.format("  Heap used  avg %6d MB  max %6d MB%n",
+                    heapKbTotal / heapSamples / 1024, maxHeapKb / 1024));
+        }
+        if (maxRssKb > 0) {
+            report.append(String.format("  RSS                     max %6d MB%n", maxRssKb / 1024));
+        }
+        return report.toString();
+    }
+
+    private double cpuPercent(long ticks, long nanos) {
+        return 100d * ticks / clockTicks / (nanos / 1e9);
+    }
+
+    // User and system time of the process, fields 14 and 15 of /proc/<pid>/stat
+    private long cpuTicks() {
+        try {
+            var stat = Files.readString(Path.of("/proc", Long.toString(pid), "stat"));
+            // The command name may hold spaces, the fields are counted after it
+            var fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private long rssKb() {
+        try {
+            for (var line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not on Linux or the process is gone
+        }
+        return 0;
+    }
+
+    // Sum of the used survivor, eden and old spaces, in KB
+    private long heapUsedKb() {
+        var output = run("jstat", "-gc", Long.toString(pid));
+        if (output == null) {
+            return -1;
+        }
+        var lines = output.trim().split("\n");
+        if (lines.length < 2) {
+            return -1;
+        }
+        var header = lines[0].trim().split("\\s+");
+        var values = lines[1].trim().split("\\s+");
+        double used = 0;
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            if (header[i].equals("S0U") || header[i].equals("S1U") || header[i].equals("EU")
+                    || header[i].equals("OU")) {
+                used += Double.parseDouble(values[i]);
+            }
+        }
+        return (long) used;
+    }
+
+    private static long clockTicks() {
+        var output = run("getconf", "CLK_TCK");
+        try {
+            return output == null ? 100 : Long.parseLong(output.trim());
+        } catch (NumberFormatException e) {
+            return 100;
+        }
+    }
+
+    private static String run(String... command) {
+        try {
+            var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            var output =
+                    new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            return process.waitFor() == 0 ? output : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
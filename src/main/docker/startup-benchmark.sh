@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+####
+# Compares the startup time and the first solve latency of the JVM and native builds.
+#
+# Build both flavours first:
+#
+# ./gradlew build
+# ./gradlew build -Dquarkus.native.enabled=true -Dquarkus.package.jar.enabled=false
+#
+# Then run from the project root:
+#
+# src/main/docker/startup-benchmark.sh [iterations] [problem.json]
+#
+# For each flavour and iteration it measures:
+#  - startup: process launch until the HTTP endpoint answers
+#  - solve:   latency of the first POST /api/committeeSolution/solve
+#  - poll:    latency of the first GET /api/committeeSolution/{id} (score explanation)
+###
+set -euo pipefail
+
+ITERATIONS=${1:-5}
+PROBLEM=${2:-src/test/resources/default-problem.json}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+run_flavour() {
+    local name=$1
+    shift
+    local total_startup=0 total_solve=0 total_poll=0
+
+    for ((i = 1; i <= ITERATIONS; i++)); do
+        local start pid ready solved polled id
+        start=$(now_ms)
+        QUARKUS_HTTP_PORT=${PORT} "$@" > /dev/null 2>&1 &
+        pid=$!
+        until curl -s -o /dev/null "${BASE_URL}/q/openapi"; do
+            sleep 0.01
+        done
+        ready=$(now_ms)
+
+        id=$(curl -s -H 'Content-Type: application/json' --data-binary "@${PROBLEM}" \
+            "${BASE_URL}/api/committeeSolution/solve" | grep -o '"id":"[^"]*"' | head -1 | cut -d'"' -f4)
+        solved=$(now_ms)
+
+        curl -s -o /dev/null "${BASE_URL}/api/committeeSolution/${id}"
+        polled=$(now_ms)
+
+        curl -s -o /dev/null "${BASE_URL}/api/committeeSolution/stopSolving/${id}"
+        kill "${pid}"
+        wait "${pid}" 2> /dev/null || true
+
+        total_startup=$((total_startup + ready - start))
+        total_solve=$((total_solve + solved - ready))
+        total_poll=$((total_poll + polled - solved))
+        echo "${name} #${i}: startup=$((ready - start))ms solve=$((solved - ready))ms poll=$((polled - solved))ms"
+    done
+
+    echo "${name} average: startup=$((total_startup / ITERATIONS))ms" \
+        "solve=$((total_solve / ITERATIONS))ms poll=$((total_poll / ITERATIONS))ms"
+}
+
+run_flavour jvm java -jar build/quarkus-app/quarkus-run.jar
+run_flavour native ./build/*-runner
@@ -46,6 +46,19 @@ public class Committee implements Comparable<Committee> {
         this.useAvailability = settings.useAvailability;
     }
 
+    /**
+     * Copies the committee without its assignments, for the solution cloner.
+     */
+    Committee(Committee original) {
+        this.id = original.id;
+        this.evaluatedPerson = original.evaluatedPerson;
+        this.createdDate = original.createdDate;
+        this.useAvailability = original.useAvailability;
+        this.settings = original.settings;
+        this.timeSlot = original.timeSlot;
+        this.assignments = new ArrayList<>(original.assignments.size());
+    }
+
     public boolean duplicatedEvaluator() {
         var set = assignments.stream().map(a -> a.assignedPerson).collect(Collectors.toSet());
         return assignments.size() > set.size();
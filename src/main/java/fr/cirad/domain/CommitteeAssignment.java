@@ -1,9 +1,12 @@
 package fr.cirad.domain;
 
+import java.util.AbstractList;
 import java.util.Comparator;
+import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 
 @PlanningEntity
@@ -14,9 +17,18 @@ public class CommitteeAssignment implements Comparable<CommitteeAssignment> {
 
     public Person assignedPerson;
 
-    @PlanningVariable(valueRangeProviderRefs = {"committeeRange"}, nullable = true)
+    @PlanningVariable(valueRangeProviderRefs = {"possibleCommitteeRange"}, nullable = true)
     public Committee committee;
 
+    // Indexes in the solution committees of the committees the assigned person can join, shared
+    // by all the assignments of the person
+    @JsonIgnore
+    public int[] possibleCommitteeIndexes = new int[0];
+
+    // The committees of the solution holding this assignment
+    @JsonIgnore
+    public List<Committee> solutionCommittees = List.of();
+
     @JsonIgnore
     public DistanceMatrix distanceMatrix;
 
@@ -45,13 +57,29 @@ public class CommitteeAssignment implements Comparable<CommitteeAssignment> {
         return committee;
     }
 
+    @JsonIgnore
+    @ValueRangeProvider(id = "possibleCommitteeRange")
+    public List<Committee> getPossibleCommittees() {
+        return new AbstractList<>() {
+            @Override
+            public Committee get(int index) {
+                return solutionCommittees.get(possibleCommitteeIndexes[index]);
+            }
+
+            @Override
+            public int size() {
+                return possibleCommitteeIndexes.length;
+            }
+        };
+    }
+
     @JsonIgnore
     public Integer getDistance() {
         if (assignedPerson == null || distanceMatrix == null) {
             return 0;
         }
-        return distanceMatrix.getDistance(assignedPerson.location.name,
-                committee.evaluatedPerson.location.name);
+        return distanceMatrix.getDistance(assignedPerson.location,
+                committee.evaluatedPerson.location);
     }
 
     @Override
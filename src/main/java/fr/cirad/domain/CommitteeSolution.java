@@ -1,12 +1,21 @@
 package fr.cirad.domain;
 
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.INSPECTION_ROTATION;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.SELF_CONFLICT;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.TRAVELLING;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.VETOES;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.solution.ConstraintWeightOverrides;
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
@@ -17,10 +26,14 @@ import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftSc
 import ai.timefold.solver.core.api.solver.SolverStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Strings;
+import fr.cirad.solver.CommitteeSchedulingConstraintProvider;
 
-@PlanningSolution
+@PlanningSolution(solutionCloner = CommitteeSolutionCloner.class)
 public class CommitteeSolution {
 
+    private static final Pattern SINGLE_LEVEL_WEIGHT =
+            Pattern.compile("(-?\\d+)(hard|medium|soft)");
+
     @PlanningId
     public UUID id;
 
@@ -29,7 +42,6 @@ public class CommitteeSolution {
 
     @PlanningEntityCollectionProperty
     @JsonIgnore
-    @ValueRangeProvider(id = "committeeRange")
     public List<Committee> committees;
 
     @ProblemFactCollectionProperty
@@ -49,6 +61,14 @@ public class CommitteeSolution {
 
     public String scoreExplanation = "";
 
+    // Why no schedule can satisfy every constraint, found when the solution is built
+    public List<String> feasibilityIssues = new ArrayList<>();
+
+    // Applied when the score is calculated, so the constraints are built once for all weights
+    @JsonIgnore
+    public ConstraintWeightOverrides<HardMediumSoftScore> constraintWeightOverrides =
+            ConstraintWeightOverrides.none();
+
     // Ignored by OptaPlanner, used by the UI to display solve or stop solving
     // button
     public SolverStatus solverStatus;
@@ -61,6 +81,7 @@ public class CommitteeSolution {
         this.id = id;
         this.settings = options.settings;
         this.persons = options.participants;
+        this.constraintWeightOverrides = getConstraintWeightOverrides(options.settings);
 
         // verify that all persons have a unique id
         if (persons.stream().map(p -> p.name).distinct().count() != persons.size()) {
@@ -82,15 +103,29 @@ public class CommitteeSolution {
                 .map(person -> new Committee(person, options.settings))
                 .collect(Collectors.toList());
 
+        // Distances are looked up by location index, and computed from the coordinates of the
+        // locations missing from the matrix
+        var distanceMatrix = options.settings.distanceMatrix != null
+                ? options.settings.distanceMatrix
+                : new DistanceMatrix();
+        distanceMatrix.init(
+                this.persons.stream().map(person -> person.location).collect(Collectors.toList()),
+                options.settings.distanceMetric);
+
         // initialization of the Committees assignments needed (professionals, non-professionals and
         // externals)
         this.committeeAssignments = new ArrayList<>();
         Long committeeAssignmentId = 0L;
         for (var person : this.persons) {
             var range = options.settings.getNumberOfAssignmentsRange(person.personType);
+            var possibleCommitteeIndexes = getPossibleCommitteeIndexes(person, distanceMatrix,
+                    options.settings.travellingDistanceRange);
             for (int i = 0; i < range.getMax(); i++) {
-                this.committeeAssignments.add(new CommitteeAssignment(committeeAssignmentId++,
-                        person, options.settings.distanceMatrix));
+                var assignment =
+                        new CommitteeAssignment(committeeAssignmentId++, person, distanceMatrix);
+                assignment.possibleCommitteeIndexes = possibleCommitteeIndexes;
+                assignment.solutionCommittees = this.committees;
+                this.committeeAssignments.add(assignment);
             }
         }
 
@@ -100,6 +135,88 @@ public class CommitteeSolution {
             // Devskim: ignore DS148264
             Collections.shuffle(this.committeeAssignments);
         }
+
+        this.feasibilityIssues = FeasibilityAnalyzer.analyze(this);
+    }
+
+    /**
+     * The weights of {@link Settings#constraintWeights}, by constraint name.
+     *
+     * @throws IllegalArgumentException if a constraint is unknown or a weight is invalid.
+     */
+    private static ConstraintWeightOverrides<HardMediumSoftScore> getConstraintWeightOverrides(
+            Settings settings) {
+        if (settings.constraintWeights == null || settings.constraintWeights.isEmpty()) {
+            return ConstraintWeightOverrides.none();
+        }
+        Map<String, HardMediumSoftScore> weights = new LinkedHashMap<>();
+        settings.constraintWeights.forEach((name, weight) -> {
+            if (!CommitteeSchedulingConstraintProvider.CONSTRAINT_NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown constraint (" + name
+                        + "), expected one of "
+                        + CommitteeSchedulingConstraintProvider.CONSTRAINT_NAMES);
+            }
+            HardMediumSoftScore score;
+            try {
+                score = parseWeight(weight.trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid weight (" + weight
+                        + ") for the constraint (" + name + "), expected e.g. 100hard", e);
+            }
+            if (score.hardScore() < 0 || score.mediumScore() < 0 || score.softScore() < 0) {
+                throw new IllegalArgumentException("Negative weight (" + weight
+                        + ") for the constraint (" + name + "), the constraints penalize");
+            }
+            weights.put(name, score);
+        });
+        return ConstraintWeightOverrides.of(weights);
+    }
+
+    // A single level, e.g. 10hard, or all of them, e.g. 0hard/10medium/0soft
+    private static HardMediumSoftScore parseWeight(String weight) {
+        var matcher = SINGLE_LEVEL_WEIGHT.matcher(weight);
+        if (!matcher.matches()) {
+            return HardMediumSoftScore.parseScore(weight);
+        }
+        int value = Integer.parseInt(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "hard" -> HardMediumSoftScore.ofHard(value);
+            case "medium" -> HardMediumSoftScore.ofMedium(value);
+            default -> HardMediumSoftScore.ofSoft(value);
+        };
+    }
+
+    /**
+     * @return Whether the constraint keeps a hard weight, so that breaking it makes the solution
+     *         infeasible.
+     */
+    public boolean isHard(String constraintName) {
+        var weight = constraintWeightOverrides.getConstraintWeight(constraintName);
+        return weight == null || weight.hardScore() != 0;
+    }
+
+    /**
+     * The committees a person can join without breaking by construction a hard constraint: self
+     * conflict, veto, inspector rotation, or a single trip already longer than the travelling
+     * distance range. It is the value range of the person assignments, so the solver never
+     * evaluates these moves. A constraint weighted to zero or softened no longer prunes it.
+     */
+    private int[] getPossibleCommitteeIndexes(Person person, DistanceMatrix distanceMatrix,
+            Range travellingDistanceRange) {
+        boolean selfConflict = isHard(SELF_CONFLICT);
+        boolean vetoes = isHard(VETOES);
+        boolean rotation = isHard(INSPECTION_ROTATION);
+        int maxDistance = travellingDistanceRange == null || !isHard(TRAVELLING)
+                ? Integer.MAX_VALUE
+                : travellingDistanceRange.getMax();
+        return IntStream.range(0, this.committees.size()).filter(i -> {
+            var evaluatedPerson = this.committees.get(i).evaluatedPerson;
+            return !(selfConflict && person.equals(evaluatedPerson))
+                    && !(vetoes && person.isVetoed(evaluatedPerson))
+                    && !(rotation && person.hasAlreadyInspectedInThePast(evaluatedPerson))
+                    && (maxDistance == Integer.MAX_VALUE || distanceMatrix
+                            .getDistance(person.location, evaluatedPerson.location) <= maxDistance);
+        }).toArray();
     }
 
     public Optional<Committee> getCommitteeByEvaluatedPersonName(String personName) {
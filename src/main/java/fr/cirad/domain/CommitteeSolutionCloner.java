@@ -0,0 +1,68 @@
+package fr.cirad.domain;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import ai.timefold.solver.core.api.domain.solution.cloner.SolutionCloner;
+import fr.cirad.monitoring.JobEvents;
+
+/**
+ * Clones a solution for the solver, which does it for every new best solution.
+ * <p>
+ * Only the planning state is copied: the committees with their time slot and the assignments
+ * with their committee. Persons, time slots, settings and the distance matrix are never changed
+ * by the solver and are shared with the original, as are the constraint weights, the feasibility
+ * issues and the possible committee indexes of the assignments.
+ */
+public class CommitteeSolutionCloner implements SolutionCloner<CommitteeSolution> {
+
+    @Override
+    public CommitteeSolution cloneSolution(CommitteeSolution original) {
+        var event = new JobEvents.Cloned();
+        event.begin();
+        var clone = new CommitteeSolution();
+        clone.id = original.id;
+        clone.settings = original.settings;
+        clone.persons = original.persons;
+        clone.timeSlots = original.timeSlots;
+        clone.score = original.score;
+        clone.scoreExplanation = original.scoreExplanation;
+        clone.feasibilityIssues = original.feasibilityIssues;
+        clone.solverStatus = original.solverStatus;
+        clone.constraintWeightOverrides = original.constraintWeightOverrides;
+
+        // Committees may be equal without being the same instance, so map them by identity
+        Map<Committee, Committee> committeeClones =
+                new IdentityHashMap<>(original.committees.size());
+        clone.committees = new ArrayList<>(original.committees.size());
+        for (var committee : original.committees) {
+            var committeeClone = new Committee(committee);
+            committeeClones.put(committee, committeeClone);
+            clone.committees.add(committeeClone);
+        }
+
+        Map<CommitteeAssignment, CommitteeAssignment> assignmentClones =
+                new IdentityHashMap<>(original.committeeAssignments.size());
+        clone.committeeAssignments = new ArrayList<>(original.committeeAssignments.size());
+        for (var assignment : original.committeeAssignments) {
+            var assignmentClone = new CommitteeAssignment(assignment.id, assignment.assignedPerson,
+                    assignment.distanceMatrix);
+            assignmentClone.committee =
+                    assignment.committee == null ? null : committeeClones.get(assignment.committee);
+            assignmentClone.possibleCommitteeIndexes = assignment.possibleCommitteeIndexes;
+            assignmentClone.solutionCommittees = clone.committees;
+            assignmentClones.put(assignment, assignmentClone);
+            clone.committeeAssignments.add(assignmentClone);
+        }
+
+        // Keep the order of the inverse relation lists, the constraints are evaluated on them
+        for (var committee : original.committees) {
+            var assignments = committeeClones.get(committee).assignments;
+            for (var assignment : committee.assignments) {
+                assignments.add(assignmentClones.get(assignment));
+            }
+        }
+        event.commit(original.id, clone.committeeAssignments.size());
+        return clone;
+    }
+}
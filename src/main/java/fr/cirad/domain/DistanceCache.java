@@ -0,0 +1,51 @@
+package fr.cirad.domain;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Bounded memo of the distances between pairs of location indexes. It is direct-mapped: each
+ * pair has a single slot, a colliding pair simply replaces it. A slot packs the pair key and the
+ * distance in one long, so concurrent solvers sharing the cache never read a torn entry.
+ */
+class DistanceCache {
+
+    // Pair keys must fit in the upper half of a slot
+    static final int MAX_LOCATIONS = 46_340;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final int locationCount;
+
+    DistanceCache(int locationCount, int maxSlots) {
+        this.locationCount = locationCount;
+        long pairs = (long) locationCount * locationCount;
+        int size = (int) Math.min(Integer.highestOneBit((int) Math.min(pairs, 1 << 30)) * 2L,
+                Integer.highestOneBit(maxSlots));
+        this.slots = new AtomicLongArray(Math.max(size, 2));
+        this.mask = slots.length() - 1;
+    }
+
+    /**
+     * @return The cached distance between the two locations, computed on a miss. Distances are
+     *         symmetric, both directions share the same slot.
+     */
+    int get(int from, int to, IntBinaryOperator distance) {
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        long tag = (low * (long) locationCount + high + 1) << 32;
+        int slot = mix(low * locationCount + high) & mask;
+        long entry = slots.getPlain(slot);
+        if ((entry & 0xFFFF_FFFF_0000_0000L) == tag) {
+            return (int) entry;
+        }
+        int value = distance.applyAsInt(low, high);
+        slots.setPlain(slot, tag | (value & 0xFFFF_FFFFL));
+        return value;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
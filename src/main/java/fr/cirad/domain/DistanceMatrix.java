@@ -1,11 +1,37 @@
 package fr.cirad.domain;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Distances between locations, either given explicitly as a matrix keyed by location name or
+ * computed on demand from the coordinates of the locations. Both can be mixed: the matrix wins
+ * for the locations it lists. Large matrices can be referenced as a {@link DistanceMatrixFile}
+ * instead of being sent inline.
+ */
 public class DistanceMatrix {
     public List<String> locations;
     public Integer[][] distances;
 
+    // Name of a binary distance matrix file, replaces locations and distances when set
+    public String file;
+
+    // Maximum number of memoized distances computed from coordinates
+    private static final int MAX_CACHED_DISTANCES = 1 << 20;
+
+    private DistanceMetric metric = DistanceMetric.GREAT_CIRCLE;
+
+    // Index of each known location, the first ones are the rows of the explicit matrix
+    private volatile Map<String, Integer> indexes;
+    private int explicitCount;
+    private DistanceMatrixFile mappedFile;
+    private double[] latitudes;
+    private double[] longitudes;
+    private DistanceCache cache;
+
     public DistanceMatrix() {
         // must have a no-args constructor so it can be deserialized by Jackson
     }
@@ -15,16 +41,102 @@ public class DistanceMatrix {
         this.distances = distances;
     }
 
+    /**
+     * Indexes the locations of the matrix and the given ones, so that distances are looked up
+     * in constant time. Must be called before solving when locations carry coordinates.
+     *
+     * @param knownLocations The locations of the participants.
+     * @param metric How distances are computed from coordinates, great circle when null.
+     */
+    public synchronized void init(Collection<Location> knownLocations, DistanceMetric metric) {
+        if (metric != null) {
+            this.metric = metric;
+        }
+        var newIndexes = new HashMap<String, Integer>();
+        int size = 0;
+        List<String> matrixLocations = null;
+        if (file != null) {
+            mappedFile = DistanceMatrixFile.open(DistanceMatrixFile.resolve(file));
+            matrixLocations = mappedFile.getLocations();
+        } else if (locations != null && distances != null) {
+            matrixLocations = locations;
+        }
+        if (matrixLocations != null) {
+            // The first occurrence of a name gives its row in the matrix
+            for (var name : matrixLocations) {
+                newIndexes.putIfAbsent(name, size++);
+            }
+        }
+        explicitCount = size;
+        for (var location : knownLocations) {
+            if (location != null && location.name != null
+                    && newIndexes.putIfAbsent(location.name, size) == null) {
+                size++;
+            }
+        }
+        latitudes = new double[size];
+        longitudes = new double[size];
+        Arrays.fill(latitudes, Double.NaN);
+        Arrays.fill(longitudes, Double.NaN);
+        for (var location : knownLocations) {
+            if (location != null && location.name != null && location.hasCoordinates()) {
+                int index = newIndexes.get(location.name);
+                latitudes[index] = location.latitude;
+                longitudes[index] = location.longitude;
+            }
+        }
+        cache = size <= DistanceCache.MAX_LOCATIONS
+                ? new DistanceCache(size, MAX_CACHED_DISTANCES)
+                : null;
+        indexes = newIndexes;
+    }
+
     public Integer getDistance(String location1, String location2) {
-        if (locations == null || distances == null) {
+        var locationIndexes = getIndexes();
+        var index1 = locationIndexes.get(location1);
+        var index2 = locationIndexes.get(location2);
+        if (index1 == null || index2 == null) {
+            return 0;
+        }
+        return getDistance(index1, index2);
+    }
+
+    public int getDistance(Location location1, Location location2) {
+        if (location1 == null || location2 == null) {
             return 0;
         }
-        int index1 = locations.indexOf(location1);
-        int index2 = locations.indexOf(location2);
-        if (index1 > -1 && index2 > -1) {
-            return distances[index1][index2];
-        } else {
+        return getDistance(location1.name, location2.name);
+    }
+
+    private int getDistance(int index1, int index2) {
+        if (index1 < explicitCount && index2 < explicitCount) {
+            if (mappedFile != null) {
+                return mappedFile.getDistance(index1, index2);
+            }
+            var distance = distances[index1][index2];
+            return distance == null ? 0 : distance;
+        }
+        if (Double.isNaN(latitudes[index1]) || Double.isNaN(latitudes[index2])) {
             return 0;
         }
+        if (cache == null) {
+            return computeDistance(index1, index2);
+        }
+        return cache.get(index1, index2, this::computeDistance);
+    }
+
+    private int computeDistance(int index1, int index2) {
+        return (int) Math.round(metric.distance(latitudes[index1], longitudes[index1],
+                latitudes[index2], longitudes[index2]));
+    }
+
+    private Map<String, Integer> getIndexes() {
+        var locationIndexes = indexes;
+        if (locationIndexes == null) {
+            // Only the explicit matrix when init has not been called
+            init(List.of(), null);
+            locationIndexes = indexes;
+        }
+        return locationIndexes;
     }
 }
@@ -0,0 +1,185 @@
+package fr.cirad.domain;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.ConfigProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Distance matrix stored in a compact binary file and memory-mapped, so that very large matrices
+ * are read in place instead of being held on the heap as boxed integers. The file is referenced
+ * by name from {@link DistanceMatrix#file} and resolved in the directory configured by
+ * {@code dicoop.distance-matrix.directory}.
+ *
+ * <pre>
+ * int    magic "DCM1"
+ * byte   cell size: 2 (unsigned short) or 4 (int)
+ * int    number of locations n
+ * n x    location name: unsigned short length + UTF-8 bytes
+ * n x n  distances, row by row, big-endian
+ * </pre>
+ *
+ * The main method converts the JSON form of a distance matrix (or of solver options holding
+ * one) into this format: {@code ./gradlew convertDistanceMatrix -Pinput=a.json -Poutput=a.dcm}.
+ */
+public final class DistanceMatrixFile {
+
+    private static final int MAGIC = 0x44434D31;
+
+    // Opened files shared by all the problems referencing them
+    private static final Map<Path, DistanceMatrixFile> OPENED = new ConcurrentHashMap<>();
+
+    private final FileTime lastModified;
+    private final List<String> locations;
+    private final ByteBuffer grid;
+    private final int cellSize;
+
+    private DistanceMatrixFile(FileTime lastModified, List<String> locations, ByteBuffer grid,
+            int cellSize) {
+        this.lastModified = lastModified;
+        this.locations = locations;
+        this.grid = grid;
+        this.cellSize = cellSize;
+    }
+
+    public List<String> getLocations() {
+        return locations;
+    }
+
+    public int getDistance(int index1, int index2) {
+        int cell = index1 * locations.size() + index2;
+        if (cellSize == Short.BYTES) {
+            return Short.toUnsignedInt(grid.getShort(cell * Short.BYTES));
+        }
+        return grid.getInt(cell * Integer.BYTES);
+    }
+
+    /**
+     * Resolves a file name in the configured directory, names escaping it are refused.
+     */
+    public static Path resolve(String name) {
+        var directory = Path.of(ConfigProvider.getConfig()
+                .getOptionalValue("dicoop.distance-matrix.directory", String.class).orElse("."))
+                .toAbsolutePath().normalize();
+        var file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException(
+                    "The distance matrix file (" + name + ") is outside of " + directory);
+        }
+        return file;
+    }
+
+    /**
+     * Maps a distance matrix file, reusing the mapping while the file is unchanged.
+     */
+    public static DistanceMatrixFile open(Path file) {
+        try {
+            var lastModified = Files.getLastModifiedTime(file);
+            var opened = OPENED.get(file);
+            if (opened == null || !opened.lastModified.equals(lastModified)) {
+                opened = read(file, lastModified);
+                OPENED.put(file, opened);
+            }
+            return opened;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the distance matrix file " + file, e);
+        }
+    }
+
+    private static DistanceMatrixFile read(Path file, FileTime lastModified) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a distance matrix file");
+            }
+            int cellSize = buffer.get();
+            int count = buffer.getInt();
+            if (cellSize != Short.BYTES && cellSize != Integer.BYTES) {
+                throw new IOException("Unsupported cell size " + cellSize);
+            }
+            var locations = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                var name = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(name);
+                locations.add(new String(name, StandardCharsets.UTF_8));
+            }
+            if (buffer.remaining() != (long) count * count * cellSize) {
+                throw new IOException("Truncated distance matrix file");
+            }
+            // The mapping stays valid once the channel is closed
+            return new DistanceMatrixFile(lastModified, Collections.unmodifiableList(locations),
+                    buffer.slice(), cellSize);
+        }
+    }
+
+    public static void write(List<String> locations, Integer[][] distances, Path file)
+            throws IOException {
+        int count = locations.size();
+        int cellSize = Short.BYTES;
+        for (var row : distances) {
+            for (var distance : row) {
+                if (distance != null && (distance < 0 || distance > 0xFFFF)) {
+                    cellSize = Integer.BYTES;
+                }
+            }
+        }
+        // A mapping is limited to 2GB, keep room for the header
+        if ((long) count * count * cellSize > Integer.MAX_VALUE - (1 << 24)) {
+            throw new IllegalArgumentException("Too many locations for " + cellSize
+                    + " bytes distances: " + count);
+        }
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(cellSize);
+            out.writeInt(count);
+            for (var name : locations) {
+                var bytes = name.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Location name too long: " + name);
+                }
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            for (int i = 0; i < count; i++) {
+                for (int j = 0; j < count; j++) {
+                    var distance = distances[i][j];
+                    int value = distance == null ? 0 : distance;
+                    if (cellSize == Short.BYTES) {
+                        out.writeShort(value);
+                    } else {
+                        out.writeInt(value);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DistanceMatrixFile <input.json> <output.dcm>");
+            System.exit(1);
+        }
+        JsonNode json = new ObjectMapper().readTree(Path.of(args[0]).toFile());
+        if (json.has("settings")) {
+            json = json.get("settings").get("distanceMatrix");
+        }
+        var distanceMatrix = new ObjectMapper().treeToValue(json, DistanceMatrix.class);
+        write(distanceMatrix.locations, distanceMatrix.distances, Path.of(args[1]));
+        System.out.println("Converted " + distanceMatrix.locations.size() + " locations to "
+                + args[1]);
+    }
+}
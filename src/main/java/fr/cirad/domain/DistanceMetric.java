@@ -0,0 +1,28 @@
+package fr.cirad.domain;
+
+/**
+ * How the distance between two locations with coordinates is computed, in kilometers.
+ */
+public enum DistanceMetric {
+    // Shortest path on the earth surface (haversine formula)
+    GREAT_CIRCLE,
+    // Sum of the north-south and east-west distances, closer to a road network
+    MANHATTAN;
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    public double distance(double latitude1, double longitude1, double latitude2,
+            double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double deltaPhi = phi2 - phi1;
+        double deltaLambda = Math.toRadians(longitude2 - longitude1);
+        if (this == MANHATTAN) {
+            return EARTH_RADIUS_KM * (Math.abs(deltaPhi)
+                    + Math.abs(deltaLambda) * Math.cos((phi1 + phi2) / 2));
+        }
+        double a = Math.pow(Math.sin(deltaPhi / 2), 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.pow(Math.sin(deltaLambda / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
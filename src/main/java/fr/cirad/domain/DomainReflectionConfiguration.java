@@ -0,0 +1,20 @@
+package fr.cirad.domain;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the domain classes for reflection so that Jackson can (de)serialize them in a native
+ * executable. The planning classes are also handled by the Timefold extension, but the problem
+ * facts only reached through fields (Range, Skill, Location...) would otherwise be stripped.
+ */
+@RegisterForReflection(targets = {CommitteeSolution.class, CommitteeSolutionCloner.class,
+        Committee.class, CommitteeAssignment.class, DistanceMatrix.class, ExactResult.class,
+        Location.class, Person.class, PersonType.class, PortfolioMember.class, Range.class,
+        Settings.class, Skill.class, SolutionChanges.class, SolverOptions.class, TimeSlot.class,
+        WhatIfEdit.class, WhatIfResult.class})
+public class DomainReflectionConfiguration {
+
+    private DomainReflectionConfiguration() {
+        // Only holds the reflection registration
+    }
+}
@@ -0,0 +1,39 @@
+package fr.cirad.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of an exact solve. As every constraint only penalizes, a solution without any penalty
+ * is optimal, and the exact solver either finds one or proves that there is none.
+ */
+public class ExactResult {
+
+    public enum Status {
+        // A solution without any penalty was found, available under the id
+        OPTIMAL,
+        // No solution satisfies all the constraints, see the certificate
+        INFEASIBLE,
+        // The time limit was reached first
+        UNKNOWN
+    }
+
+    public UUID id;
+
+    public Status status;
+
+    // Score of the optimal solution
+    public String score;
+
+    // Why the problem is infeasible, or why the result is unknown
+    public List<String> certificate = new ArrayList<>();
+
+    public long exploredNodes;
+
+    public long timeMillis;
+
+    public ExactResult() {
+        // Empty constructor needed by serialization
+    }
+}
@@ -0,0 +1,247 @@
+package fr.cirad.domain;
+
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.DUPLICATED_EVALUATOR;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.EVALUATED_AVAILABLE;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.EVALUATORS_AVAILABILITY;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.INSPECTION_FOLLOW_UP;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_NON_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.REQUIRED_SKILLS;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Necessary conditions for a solution without any hard penalty, checked when a
+ * {@link CommitteeSolution} is built so that problems infeasible by arithmetic are reported
+ * before solving them.
+ * <p>
+ * Each committee must have enough possible evaluators of each type, following up, holding each
+ * required skill and available with the evaluated person. Globally, the seats of each type
+ * cannot outnumber the assignments of the persons of that type, which is then refined by a
+ * maximum flow from the persons to the committees they can join: when the flow cannot fill the
+ * minimum seats, no schedule can. Constraints whose weight is overridden to zero or to a soft
+ * weight are ignored, and the committees each person can join follow the same weights.
+ */
+public final class FeasibilityAnalyzer {
+
+    private FeasibilityAnalyzer() {}
+
+    /**
+     * @return The reasons why no schedule can satisfy every constraint, empty if none was found.
+     */
+    public static List<String> analyze(CommitteeSolution solution) {
+        var settings = solution.settings;
+        List<String> issues = new ArrayList<>();
+
+        // Assignments count of each person, and the committees they can join
+        Map<Person, Integer> capacities = new LinkedHashMap<>();
+        Map<Person, int[]> possibleCommittees = new LinkedHashMap<>();
+        for (var assignment : solution.committeeAssignments) {
+            capacities.merge(assignment.assignedPerson, 1, Integer::sum);
+            possibleCommittees.putIfAbsent(assignment.assignedPerson,
+                    assignment.possibleCommitteeIndexes);
+        }
+        List<List<Person>> candidates = new ArrayList<>();
+        solution.committees.forEach(committee -> candidates.add(new ArrayList<>()));
+        possibleCommittees.forEach((person, indexes) -> {
+            for (int c : indexes) {
+                candidates.get(c).add(person);
+            }
+        });
+
+        boolean useAvailability = !Boolean.FALSE.equals(settings.useAvailability);
+        boolean checkEvaluated = useAvailability && isEnabled(solution, EVALUATED_AVAILABLE);
+        boolean checkEvaluators = useAvailability && isEnabled(solution, EVALUATORS_AVAILABILITY);
+        int minProfessionals = isEnabled(solution, MIN_PROFESSIONAL_EVALUATORS)
+                ? settings.nbProParticipants.getMin()
+                : 0;
+        int minNonProfessionals = isEnabled(solution, MIN_NON_PROFESSIONAL_EVALUATORS)
+                ? settings.nbNonProParticipants.getMin()
+                : 0;
+        for (int c = 0; c < solution.committees.size(); c++) {
+            var committee = solution.committees.get(c);
+            var name = committee.id;
+            var evaluated = committee.evaluatedPerson;
+            var committeeCandidates = candidates.get(c);
+            long professionals = count(committeeCandidates, PersonType.PROFESSIONAL);
+            if (professionals < minProfessionals) {
+                issues.add(name + ": " + professionals
+                        + " possible professional evaluators, at least " + minProfessionals
+                        + " needed");
+            }
+            long nonProfessionals = count(committeeCandidates, PersonType.NON_PROFESSIONAL);
+            if (nonProfessionals < minNonProfessionals) {
+                issues.add(name + ": " + nonProfessionals
+                        + " possible non-professional evaluators, at least "
+                        + minNonProfessionals + " needed");
+            }
+            if (isEnabled(solution, INSPECTION_FOLLOW_UP)) {
+                long followUps = committeeCandidates.stream()
+                        .filter(person -> person.hasAlreadyInspectedLastTime(evaluated)).count();
+                if (followUps < settings.nbInspectorsFollowingUp) {
+                    issues.add(name + ": " + followUps
+                            + " possible evaluators inspected it last time, exactly "
+                            + settings.nbInspectorsFollowingUp + " needed");
+                }
+            }
+            if (isEnabled(solution, REQUIRED_SKILLS)) {
+                for (var skill : evaluated.requiredSkills) {
+                    if (committeeCandidates.stream().noneMatch(person -> person.hasSkill(skill))) {
+                        issues.add(name + ": no possible evaluator has the required skill "
+                                + skill.name);
+                    }
+                }
+            }
+            var timeSlots = solution.timeSlots.stream()
+                    .filter(timeSlot -> !checkEvaluated || evaluated.isAvailable(timeSlot))
+                    .toList();
+            if (checkEvaluated && timeSlots.isEmpty()) {
+                issues.add(name + ": the evaluated person is available on no time slot");
+            } else if (checkEvaluators && timeSlots.stream()
+                    .noneMatch(timeSlot -> committeeCandidates.stream()
+                            .filter(person -> person.isAvailable(timeSlot)).count() >= 2)) {
+                issues.add(name + ": no time slot where " + (checkEvaluated
+                        ? "the evaluated person and "
+                        : "") + "two possible evaluators are available");
+            }
+        }
+
+        checkSeats(solution, capacities, possibleCommittees, PersonType.PROFESSIONAL,
+                minProfessionals, "professional", issues);
+        checkSeats(solution, capacities, possibleCommittees, PersonType.NON_PROFESSIONAL,
+                minNonProfessionals, "non-professional", issues);
+        return issues;
+    }
+
+    // Whether the minimum seats of a type can be filled by the persons of that type
+    private static void checkSeats(CommitteeSolution solution, Map<Person, Integer> capacities,
+            Map<Person, int[]> possibleCommittees, PersonType personType, int minimum,
+            String typeName, List<String> issues) {
+        int committeeCount = solution.committees.size();
+        long seats = (long) committeeCount * minimum;
+        if (seats == 0) {
+            return;
+        }
+        List<Person> persons = capacities.keySet().stream()
+                .filter(person -> personType.equals(person.personType)).toList();
+        // A person joining a committee twice is only penalized as a duplicated evaluator
+        boolean distinct = isEnabled(solution, DUPLICATED_EVALUATOR);
+        long capacity = 0;
+        for (var person : persons) {
+            capacity += distinct
+                    ? Math.min(capacities.get(person), possibleCommittees.get(person).length)
+                    : capacities.get(person);
+        }
+        if (capacity < seats) {
+            issues.add("The " + committeeCount + " committees need at least " + seats + " "
+                    + typeName + " evaluators, the " + typeName
+                    + " participants can fill at most " + capacity);
+            return;
+        }
+        if (!distinct) {
+            return;
+        }
+        var flow = new MaxFlow(persons.size() + committeeCount + 2);
+        int source = persons.size() + committeeCount;
+        int sink = source + 1;
+        for (int p = 0; p < persons.size(); p++) {
+            var person = persons.get(p);
+            flow.addEdge(source, p, capacities.get(person));
+            for (int c : possibleCommittees.get(person)) {
+                flow.addEdge(p, persons.size() + c, 1);
+            }
+        }
+        for (int c = 0; c < committeeCount; c++) {
+            flow.addEdge(persons.size() + c, sink, minimum);
+        }
+        long filled = flow.compute(source, sink);
+        if (filled < seats) {
+            issues.add("At most " + filled + " of the " + seats + " minimum " + typeName
+                    + " seats can be filled, given the committees each participant can join");
+        }
+    }
+
+    private static long count(List<Person> persons, PersonType personType) {
+        return persons.stream().filter(person -> personType.equals(person.personType)).count();
+    }
+
+    private static boolean isEnabled(CommitteeSolution solution, String constraintName) {
+        return solution.isHard(constraintName);
+    }
+
+    /**
+     * Dinic's maximum flow, on the small integer capacities of the seats.
+     */
+    private static final class MaxFlow {
+
+        // Edges of each node: target, capacity left, index of the reverse edge in the target list
+        private final List<List<int[]>> edges = new ArrayList<>();
+        private final int[] levels;
+        private final int[] next;
+
+        MaxFlow(int nodeCount) {
+            for (int i = 0; i < nodeCount; i++) {
+                edges.add(new ArrayList<>());
+            }
+            levels = new int[nodeCount];
+            next = new int[nodeCount];
+        }
+
+        void addEdge(int from, int to, int capacity) {
+            edges.get(from).add(new int[] {to, capacity, edges.get(to).size()});
+            edges.get(to).add(new int[] {from, 0, edges.get(from).size() - 1});
+        }
+
+        long compute(int source, int sink) {
+            long total = 0;
+            while (buildLevels(source, sink)) {
+                Arrays.fill(next, 0);
+                int pushed;
+                while ((pushed = push(source, sink, Integer.MAX_VALUE)) > 0) {
+                    total += pushed;
+                }
+            }
+            return total;
+        }
+
+        private boolean buildLevels(int source, int sink) {
+            Arrays.fill(levels, -1);
+            levels[source] = 0;
+            var queue = new ArrayDeque<Integer>();
+            queue.add(source);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (var edge : edges.get(node)) {
+                    if (edge[1] > 0 && levels[edge[0]] < 0) {
+                        levels[edge[0]] = levels[node] + 1;
+                        queue.add(edge[0]);
+                    }
+                }
+            }
+            return levels[sink] >= 0;
+        }
+
+        private int push(int node, int sink, int limit) {
+            if (node == sink) {
+                return limit;
+            }
+            var nodeEdges = edges.get(node);
+            for (; next[node] < nodeEdges.size(); next[node]++) {
+                var edge = nodeEdges.get(next[node]);
+                if (edge[1] > 0 && levels[edge[0]] == levels[node] + 1) {
+                    int pushed = push(edge[0], sink, Math.min(limit, edge[1]));
+                    if (pushed > 0) {
+                        edge[1] -= pushed;
+                        edges.get(edge[0]).get(edge[2])[1] += pushed;
+                        return pushed;
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+}
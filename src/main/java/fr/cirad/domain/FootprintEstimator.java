@@ -0,0 +1,85 @@
+package fr.cirad.domain;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Estimates the heap used by a job from the size of its problem, without building the solution.
+ * <p>
+ * The costs per object cover the problem facts, the planning entities of the working solution,
+ * of the best solution kept in memory and of the clone in transit between them, and the tuples
+ * of the constraint streams, for each solver of a portfolio. They are upper estimates from the
+ * object layouts, not calibrated yet: {@code CommitteeSolutionTest.footprintCalibration} prints
+ * the measured cost per job and per assignment to replace them with.
+ */
+public final class FootprintEstimator {
+
+    // Solver, score director and phases of a job, whatever its size
+    static final long BASE_BYTES = 4L << 20;
+    // Person with its skills, availability and history, as deserialized
+    static final long PERSON_BYTES = 1_024;
+    // Three copies of a committee and its assignment list, and its constraint tuples
+    static final long COMMITTEE_BYTES = 2_048;
+    // Three copies of an assignment, and its constraint tuples
+    static final long ASSIGNMENT_BYTES = 768;
+    // Entry of a possible committee index array, the worst case being a person able to join
+    // every committee
+    static final long POSSIBLE_COMMITTEE_BYTES = 4;
+    // Boxed Integer cell of an inline distance matrix and its reference
+    static final long DISTANCE_CELL_BYTES = 20;
+    // Slot of the distance cache, bounded by DistanceMatrix
+    static final long DISTANCE_CACHE_SLOT_BYTES = 8;
+    static final long MAX_DISTANCE_CACHE_SLOTS = 1 << 20;
+
+    private FootprintEstimator() {
+    }
+
+    /**
+     * @return The estimated heap footprint of solving the problem, in bytes.
+     */
+    public static long estimate(SolverOptions options) {
+        List<Person> participants = Objects.requireNonNullElse(options.participants, List.of());
+        long committees = 0;
+        long assignments = 0;
+        var locations = new HashSet<String>();
+        for (var person : participants) {
+            if (Boolean.TRUE.equals(person.needsEvaluation)) {
+                committees++;
+            }
+            var range = options.settings == null || person.personType == null ? null
+                    : options.settings.getNumberOfAssignmentsRange(person.personType);
+            assignments += range == null ? 5 : range.getMax();
+            if (person.location != null) {
+                locations.add(person.location.name);
+            }
+        }
+
+        long distanceCells = 0;
+        var distanceMatrix = options.settings == null ? null : options.settings.distanceMatrix;
+        if (distanceMatrix != null && distanceMatrix.file == null
+                && distanceMatrix.locations != null) {
+            // A matrix file is memory-mapped, out of the heap
+            distanceCells = (long) distanceMatrix.locations.size()
+                    * distanceMatrix.locations.size();
+            locations.addAll(distanceMatrix.locations);
+        }
+        long distanceCacheSlots =
+                Math.min((long) locations.size() * locations.size() * 2, MAX_DISTANCE_CACHE_SLOTS);
+
+        long solvers = getSolverCount(options);
+        return solvers * (BASE_BYTES + committees * COMMITTEE_BYTES
+                + assignments * ASSIGNMENT_BYTES)
+                + participants.size() * PERSON_BYTES
+                + participants.size() * committees * POSSIBLE_COMMITTEE_BYTES
+                + distanceCells * DISTANCE_CELL_BYTES
+                + distanceCacheSlots * DISTANCE_CACHE_SLOT_BYTES;
+    }
+
+    /**
+     * @return The number of solvers of the job, one per portfolio member.
+     */
+    public static int getSolverCount(SolverOptions options) {
+        return options.portfolio == null ? 1 : Math.max(1, options.portfolio.size());
+    }
+}
@@ -8,6 +8,10 @@ public class Location implements Comparable<Location> {
     @PlanningId
     public String name;
 
+    // Optional coordinates in decimal degrees, used when the location is not in the distance matrix
+    public Double latitude;
+    public Double longitude;
+
     private static final Comparator<Location> COMPARATOR = Comparator.comparing(l -> l.name);
 
     public Location() {
@@ -18,6 +22,10 @@ public class Location implements Comparable<Location> {
         this.name = name;
     }
 
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
     @Override
     public int compareTo(Location o) {
         return COMPARATOR.compare(this, o);
@@ -71,6 +71,18 @@ public class Person implements Comparable<Person> {
         return vetoes.contains(other) || other.vetoes.contains(this);
     }
 
+    /**
+     * Checks if the person can evaluate another one without breaking, whatever the rest of the
+     * committee, the self conflict, veto or inspector rotation constraints.
+     *
+     * @param evaluatedPerson The person that is being evaluated.
+     * @return A boolean value.
+     */
+    public boolean canEvaluate(Person evaluatedPerson) {
+        return !this.equals(evaluatedPerson) && !isVetoed(evaluatedPerson)
+                && !hasAlreadyInspectedInThePast(evaluatedPerson);
+    }
+
     /**
      * If the list of people I've already inspected is not empty and has more than one element, then
      * for each element in the list, if the element contains the name of the person I'm evaluating,
@@ -0,0 +1,21 @@
+package fr.cirad.domain;
+
+/**
+ * One of the solvers racing on a problem in portfolio mode. The unset values are those of the
+ * solver options.
+ */
+public class PortfolioMember {
+
+    public String algorithm;
+    public String strategy;
+
+    // Seed of the solver random, the index of the member when null
+    public Long randomSeed;
+
+    // Shuffles the assignments of this member only, as Settings.shuffleParticipants does
+    public Boolean shuffleParticipants;
+
+    public PortfolioMember() {
+        // Empty constructor needed by serialization
+    }
+}
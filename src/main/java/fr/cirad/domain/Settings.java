@@ -1,5 +1,7 @@
 package fr.cirad.domain;
 
+import java.util.Map;
+
 public class Settings {
     public Range nbProParticipants;
     public Range numberOfAssignmentsForAProfessional;
@@ -14,6 +16,8 @@ public class Settings {
     public int nbInspectorsFollowingUp;
 
     public DistanceMatrix distanceMatrix;
+    // Distances between locations with coordinates, great circle when null
+    public DistanceMetric distanceMetric;
     public Range travellingDistanceRange;
 
     public Boolean useAvailability;
@@ -21,6 +25,9 @@ public class Settings {
 
     public Range committeeMeetingSize;
 
+    // Weights replacing the default ones, by constraint name, e.g. "Veto": "10hard"
+    public Map<String, String> constraintWeights;
+
     public Settings() {
         // Empty constructor needed by serialization
     }
@@ -0,0 +1,36 @@
+package fr.cirad.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+/**
+ * Planning values changed in a solution since a version known by the client. When the client is
+ * too far behind, the changes hold the whole planning state instead, as in a
+ * {@link SolutionSnapshot}.
+ */
+public class SolutionChanges {
+
+    public UUID id;
+
+    // Version of the solution, to send back as since on the next poll
+    public long version;
+
+    // Whether the changes hold the whole planning state, unassigned and unscheduled values omitted
+    public boolean full;
+
+    public String score;
+
+    public SolverStatus solverStatus;
+
+    // Committee id of each changed assignment, null when unassigned
+    public Map<Long, String> committees = new HashMap<>();
+
+    // Time slot name of each changed committee, null when unscheduled
+    public Map<String, String> timeSlots = new HashMap<>();
+
+    public SolutionChanges() {
+        // Empty constructor needed by serialization
+    }
+}
@@ -0,0 +1,76 @@
+package fr.cirad.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+/**
+ * Compact form of the planning state of a {@link CommitteeSolution}: the committee of each
+ * assignment and the time slot of each committee. Together with the {@link SolverOptions} of the
+ * problem, it is enough to rebuild the solution.
+ */
+public class SolutionSnapshot {
+
+    public UUID id;
+
+    public String score;
+
+    public SolverStatus solverStatus;
+
+    // Committee id for each assignment id, unassigned assignments are omitted
+    public Map<Long, String> committees = new HashMap<>();
+
+    // Time slot name for each committee id, unscheduled committees are omitted
+    public Map<String, String> timeSlots = new HashMap<>();
+
+    public SolutionSnapshot() {
+        // Empty constructor needed by serialization
+    }
+
+    public static SolutionSnapshot of(CommitteeSolution solution) {
+        var snapshot = new SolutionSnapshot();
+        snapshot.id = solution.id;
+        snapshot.score = solution.score == null ? null : solution.score.toString();
+        snapshot.solverStatus = solution.solverStatus;
+        for (var assignment : solution.committeeAssignments) {
+            if (assignment.committee != null) {
+                snapshot.committees.put(assignment.id, assignment.committee.id);
+            }
+        }
+        for (var committee : solution.committees) {
+            if (committee.timeSlot != null) {
+                snapshot.timeSlots.put(committee.id, committee.timeSlot.name);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Sets the planning variables of a solution built from the same solver options, including the
+     * committees assignments lists maintained by the solver.
+     *
+     * @param solution The solution to update.
+     */
+    public void applyTo(CommitteeSolution solution) {
+        Map<String, Committee> committeesById = solution.committees.stream()
+                .collect(Collectors.toMap(c -> c.id, Function.identity()));
+        Map<String, TimeSlot> timeSlotsByName = solution.timeSlots.stream()
+                .collect(Collectors.toMap(t -> t.name, Function.identity()));
+        for (var committee : solution.committees) {
+            committee.timeSlot = timeSlotsByName.get(timeSlots.get(committee.id));
+            committee.assignments.clear();
+        }
+        for (var assignment : solution.committeeAssignments) {
+            assignment.committee = committeesById.get(committees.get(assignment.id));
+            if (assignment.committee != null) {
+                assignment.committee.assignments.add(assignment);
+            }
+        }
+        solution.score = score == null ? null : HardMediumSoftScore.parseScore(score);
+        solution.solverStatus = solverStatus;
+    }
+}
@@ -6,6 +6,23 @@ public class SolverOptions {
     public Settings settings;
     public List<Person> participants;
 
+    // Named solver profile (fast, balanced, thorough...), the default profile when null
+    public String profile;
+
+    // Explicit overrides of the profile
+    public Long spentLimitSeconds;
+    public Long unimprovedSpentLimitSeconds;
+    public String bestScoreLimit;
+    public String algorithm;
+    public String strategy;
+
+    // Whether to refuse solving when the problem has feasibility issues, the configured default
+    // when null
+    public Boolean refuseInfeasible;
+
+    // Solvers racing on the problem, a single solver when null or empty
+    public List<PortfolioMember> portfolio;
+
     public SolverOptions() {
         // Empty constructor needed by serialization
     }
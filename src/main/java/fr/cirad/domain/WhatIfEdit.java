@@ -0,0 +1,22 @@
+package fr.cirad.domain;
+
+/**
+ * Manual edit of a solution, either moving an evaluator from a committee to another or
+ * rescheduling a committee. Committees are identified by their id, the name of the evaluated
+ * person.
+ */
+public class WhatIfEdit {
+
+    // Evaluator to move, from a committee to another, null meaning unassigned
+    public String evaluator;
+    public String fromCommittee;
+    public String toCommittee;
+
+    // Committee to reschedule to a time slot, null meaning unscheduled
+    public String committee;
+    public String timeSlot;
+
+    public WhatIfEdit() {
+        // Empty constructor needed by serialization
+    }
+}
@@ -0,0 +1,26 @@
+package fr.cirad.domain;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Score of a solution after manual edits, compared to the solution without them.
+ */
+public class WhatIfResult {
+
+    public String score;
+
+    public String scoreDelta;
+
+    // Score delta of each constraint penalized more after the edits
+    public Map<String, String> brokenConstraints = new TreeMap<>();
+
+    // Score delta of each constraint penalized less after the edits
+    public Map<String, String> improvedConstraints = new TreeMap<>();
+
+    public long timeMillis;
+
+    public WhatIfResult() {
+        // Empty constructor needed by serialization
+    }
+}
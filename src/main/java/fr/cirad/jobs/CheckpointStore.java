@@ -0,0 +1,283 @@
+package fr.cirad.jobs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolutionSnapshot;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.rest.AdmissionControl;
+import fr.cirad.rest.CommitteeSolutionResource;
+import fr.cirad.solver.SolverProfiles;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Checkpoints the jobs solved in standalone mode to a local directory, so that they survive a
+ * restart or a crash:
+ *
+ * <pre>
+ * {id}.json           the solver options, written when the job starts
+ * {id}.snapshot.gz    the last best solution, as a gzipped snapshot
+ * {id}.spent          the milliseconds spent solving the job, over all its runs
+ * </pre>
+ *
+ * The best solutions are written at most once per interval, and only when they changed, the
+ * time spent at each interval. The files are removed once the job terminates, so the jobs found
+ * at startup were interrupted: they are resumed under the same id, warm-started from their last
+ * snapshot, and only for what is left of their spent limit.
+ */
+@ApplicationScoped
+public class CheckpointStore {
+
+    private static final String PROBLEM_SUFFIX = ".json";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot.gz";
+    private static final String SPENT_SUFFIX = ".spent";
+
+    @ConfigProperty(name = "dicoop.checkpoint.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "dicoop.checkpoint.directory",
+            defaultValue = "${java.io.tmpdir}/dicoop-checkpoints")
+    String directory;
+
+    @ConfigProperty(name = "dicoop.checkpoint.interval", defaultValue = "30s")
+    Duration interval;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    JobStore jobStore;
+
+    @Inject
+    CommitteeSolutionResource resource;
+
+    @Inject
+    AdmissionControl admissionControl;
+
+    @Inject
+    SolverProfiles solverProfiles;
+
+    @Inject
+    Logger log;
+
+    // Placeholder for a job without checkpointed solution yet
+    private static final CommitteeSolution NOT_WRITTEN = new CommitteeSolution();
+
+    // Checkpointed jobs of this instance, with the last best solution written
+    private final Map<UUID, CommitteeSolution> runningJobs = new ConcurrentHashMap<>();
+    // Nano time at which each job would have started if it had never been interrupted
+    final Map<UUID, Long> startTimes = new ConcurrentHashMap<>();
+
+    private Path root;
+    private ScheduledExecutorService executor;
+    // Jobs terminated by the shutdown keep their checkpoint, to be resumed
+    private volatile boolean shuttingDown;
+
+    public boolean isEnabled() {
+        // The job store already keeps the jobs of several instances
+        return enabled && !jobStore.isEnabled();
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        root = Path.of(directory);
+        try {
+            Files.createDirectories(root);
+            for (var id : getInterruptedJobs()) {
+                resume(id);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the checkpoints in " + root, e);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::checkpoint, interval.toMillis(),
+                interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (executor == null) {
+            return;
+        }
+        shuttingDown = true;
+        executor.shutdownNow();
+        checkpoint();
+    }
+
+    /**
+     * Records a job about to be solved.
+     *
+     * @param id The job id.
+     * @param problem The solver options, serialized before the solution is built from them.
+     */
+    public void start(UUID id, byte[] problem) {
+        try {
+            writeAtomically(problemFile(id), problem);
+            startTimes.put(id, System.nanoTime());
+            runningJobs.put(id, NOT_WRITTEN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot checkpoint the job " + id, e);
+        }
+    }
+
+    /**
+     * Removes the checkpoint of a terminated job, unless it was terminated by the shutdown.
+     */
+    public void finish(UUID id) {
+        if (shuttingDown) {
+            return;
+        }
+        synchronized (this) {
+            runningJobs.remove(id);
+            startTimes.remove(id);
+        }
+        try {
+            Files.deleteIfExists(spentFile(id));
+            Files.deleteIfExists(snapshotFile(id));
+            Files.deleteIfExists(problemFile(id));
+        } catch (IOException e) {
+            log.errorf(e, "Cannot remove the checkpoint of the job %s", id);
+        }
+    }
+
+    void checkpoint() {
+        for (var id : runningJobs.keySet()) {
+            try {
+                writeSpent(id);
+                writeBestSolution(id);
+            } catch (IOException | RuntimeException e) {
+                // The next checkpoint may succeed
+                log.errorf(e, "Cannot checkpoint the job %s", id);
+            }
+        }
+    }
+
+    private synchronized void writeSpent(UUID id) throws IOException {
+        var startTime = startTimes.get(id);
+        if (startTime != null) {
+            long spent = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            writeAtomically(spentFile(id), Long.toString(spent).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private synchronized void writeBestSolution(UUID id) throws IOException {
+        var written = runningJobs.get(id);
+        if (written == null) {
+            // Finished meanwhile
+            return;
+        }
+        var best = resource.findById(id);
+        if (best == written) {
+            return;
+        }
+        var snapshot = SolutionSnapshot.of(best);
+        snapshot.solverStatus = SolverStatus.SOLVING_ACTIVE;
+        var file = snapshotFile(id);
+        var temporary = Files.createTempFile(root, ".", ".tmp");
+        try {
+            try (var output = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                objectMapper.writeValue(output, snapshot);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        runningJobs.replace(id, best);
+    }
+
+    private void resume(UUID id) {
+        try {
+            var options = objectMapper.readValue(problemFile(id).toFile(), SolverOptions.class);
+            SolutionSnapshot snapshot = null;
+            if (Files.exists(snapshotFile(id))) {
+                try (var input = new GZIPInputStream(Files.newInputStream(snapshotFile(id)))) {
+                    snapshot = objectMapper.readValue(input, SolutionSnapshot.class);
+                }
+            }
+            long spent = Files.exists(spentFile(id))
+                    ? Long.parseLong(Files.readString(spentFile(id)).trim())
+                    : 0;
+            log.infof("Resuming the interrupted job %s%s, after %d s of solving", id,
+                    snapshot == null ? "" : " from its checkpoint (" + snapshot.score + ")",
+                    spent / 1_000);
+            // The solver only gets what is left of the spent limit, at least a second
+            var spentLimit = solverProfiles.getSpentLimit(options);
+            if (spentLimit.isPresent()) {
+                long left = spentLimit.get().toMillis() - spent;
+                options.spentLimitSeconds = Math.max(1, (left + 999) / 1_000);
+            }
+            admissionControl.admit(id, options);
+            startTimes.put(id, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(spent));
+            runningJobs.put(id, NOT_WRITTEN);
+            resource.startSolving(id, options, snapshot, jobId -> {
+                admissionControl.release(jobId);
+                finish(jobId);
+            });
+        } catch (IOException | RuntimeException e) {
+            // Kept on disk, it may be resumed by the next start
+            log.errorf(e, "Cannot resume the job %s", id);
+            runningJobs.remove(id);
+            startTimes.remove(id);
+            admissionControl.release(id);
+        }
+    }
+
+    private List<UUID> getInterruptedJobs() throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.endsWith(PROBLEM_SUFFIX) && !name.startsWith("."))
+                    .map(name -> UUID.fromString(
+                            name.substring(0, name.length() - PROBLEM_SUFFIX.length())))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path problemFile(UUID id) {
+        return root.resolve(id + PROBLEM_SUFFIX);
+    }
+
+    private Path snapshotFile(UUID id) {
+        return root.resolve(id + SNAPSHOT_SUFFIX);
+    }
+
+    private Path spentFile(UUID id) {
+        return root.resolve(id + SPENT_SUFFIX);
+    }
+
+    private void writeAtomically(Path file, byte[] content) throws IOException {
+        var temporary = Files.createTempFile(root, ".", ".tmp");
+        try {
+            Files.write(temporary, content);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
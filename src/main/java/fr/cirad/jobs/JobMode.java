@@ -0,0 +1,15 @@
+package fr.cirad.jobs;
+
+/**
+ * How an instance takes part in solving, see {@link JobStore}.
+ */
+public enum JobMode {
+    // Solves its own requests in memory, without job store
+    STANDALONE,
+    // Enqueues the requests in the job store and serves the solutions
+    API,
+    // Claims and solves the jobs of the store, and serves the solutions
+    WORKER,
+    // Both API and WORKER
+    ALL
+}
@@ -0,0 +1,336 @@
+package fr.cirad.jobs;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolutionSnapshot;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.monitoring.JobEvents;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Job store shared by several instances through a local directory, so that API instances
+ * enqueue the problems and worker instances solve them. Each state is a sub-directory and the
+ * transitions are atomic file moves, so exactly one worker claims a queued job:
+ *
+ * <pre>
+ * problems/{id}.json   the solver options, written once by the API instance
+ * queue/{id}           waiting for a worker
+ * running/{id}         claimed by a worker, holding its instance id
+ * finished/{id}        solved, stopped or failed
+ * stop/{id}            early termination requested by any instance
+ * solutions/{id}.json  the last best solution written by the worker, as a snapshot
+ * </pre>
+ *
+ * A claim is a lease: the worker renews it on every poll by touching its running file, and the
+ * claims not renewed for {@code dicoop.jobs.lease}, whose worker crashed or hangs, are moved back
+ * to the queue by the other workers. A worker finding that its claim was moved or taken over
+ * stops solving the job.
+ */
+@ApplicationScoped
+public class JobStore {
+
+    @ConfigProperty(name = "dicoop.jobs.mode", defaultValue = "standalone")
+    JobMode mode;
+
+    @ConfigProperty(name = "dicoop.jobs.directory",
+            defaultValue = "${java.io.tmpdir}/dicoop-jobs")
+    String directory;
+
+    @ConfigProperty(name = "dicoop.jobs.lease", defaultValue = "30s")
+    Duration lease;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // Written in the running files of the jobs claimed by this instance
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Solutions rebuilt from the store, with the time of the snapshot they reflect
+    private final Map<UUID, CommitteeSolution> loadedSolutions =
+            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+    private final Map<UUID, FileTime> loadedSnapshotTimes =
+            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+    // Held while reading files, a monitor would pin the virtual threads of the requests
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private Path root;
+
+    @PostConstruct
+    void init() {
+        root = Path.of(directory);
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            for (var state : List.of("problems", "queue", "running", "finished", "stop",
+                    "solutions")) {
+                Files.createDirectories(root.resolve(state));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the job store in " + root, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return mode != JobMode.STANDALONE;
+    }
+
+    public boolean isWorker() {
+        return mode == JobMode.WORKER || mode == JobMode.ALL;
+    }
+
+    public byte[] serialize(SolverOptions options) {
+        try {
+            return objectMapper.writeValueAsBytes(options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Enqueues a problem, the serialized options are written before the job becomes visible to
+     * the workers.
+     *
+     * @param id The job id.
+     * @param problem The solver options serialized with {@link #serialize(SolverOptions)}.
+     */
+    public void enqueue(UUID id, byte[] problem) {
+        try {
+            writeAtomically(problemFile(id), problem);
+            writeAtomically(root.resolve("queue").resolve(id.toString()), new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot enqueue the job " + id, e);
+        }
+    }
+
+    /**
+     * @return The queued jobs, oldest first.
+     */
+    public List<UUID> getQueuedJobs() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve("queue"))) {
+            return files.filter(f -> !f.getFileName().toString().startsWith("."))
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .map(f -> UUID.fromString(f.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return True if this instance claimed the job, false if another instance was faster.
+     */
+    public boolean claim(UUID id) throws IOException {
+        if (!move(id, "queue", "running")) {
+            return false;
+        }
+        // Also starts the lease, the moved file having the time it was queued
+        return writeOwner(id);
+    }
+
+    /**
+     * Renews the claim of a running job.
+     *
+     * @return False if the claim was lost, the job being queued again or claimed by another
+     *         instance.
+     */
+    public boolean renew(UUID id) throws IOException {
+        var file = root.resolve("running").resolve(id.toString());
+        try {
+            if (!instanceId.equals(Files.readString(file))) {
+                return false;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the claims whose lease has expired back to the queue, where they keep their place as
+     * the oldest jobs.
+     *
+     * @return The jobs queued again.
+     */
+    public List<UUID> requeueExpiredClaims() throws IOException {
+        long expiry = System.currentTimeMillis() - lease.toMillis();
+        List<UUID> expired;
+        try (Stream<Path> files = Files.list(root.resolve("running"))) {
+            expired = files.filter(f -> !f.getFileName().toString().startsWith("."))
+                    .filter(f -> lastModified(f).toMillis() < expiry)
+                    .map(f -> UUID.fromString(f.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        expired.removeIf(id -> {
+            try {
+                return !move(id, "running", "queue");
+            } catch (IOException e) {
+                return true;
+            }
+        });
+        return expired;
+    }
+
+    /**
+     * @return The last snapshot written for the job, to resume it from.
+     */
+    public Optional<SolutionSnapshot> loadSnapshot(UUID id) throws IOException {
+        try {
+            return Optional.of(
+                    objectMapper.readValue(snapshotFile(id).toFile(), SolutionSnapshot.class));
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    public SolverOptions loadOptions(UUID id) throws IOException {
+        return objectMapper.readValue(problemFile(id).toFile(), SolverOptions.class);
+    }
+
+    public void saveSnapshot(SolutionSnapshot snapshot) throws IOException {
+        var event = new JobEvents.Serialized();
+        event.begin();
+        var content = objectMapper.writeValueAsBytes(snapshot);
+        event.commit(snapshot.id, "snapshot", content.length);
+        writeAtomically(snapshotFile(snapshot.id), content);
+    }
+
+    public void finish(UUID id) throws IOException {
+        move(id, "running", "finished");
+        Files.deleteIfExists(root.resolve("stop").resolve(id.toString()));
+    }
+
+    public void requestStop(UUID id) {
+        try {
+            // A queued job is finished right away, a running one is stopped by its worker
+            if (!move(id, "queue", "finished")) {
+                Files.write(root.resolve("stop").resolve(id.toString()), new byte[0]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot stop the job " + id, e);
+        }
+    }
+
+    public boolean isStopRequested(UUID id) {
+        return Files.exists(root.resolve("stop").resolve(id.toString()));
+    }
+
+    public boolean exists(UUID id) {
+        return Files.exists(problemFile(id));
+    }
+
+    public SolverStatus getStatus(UUID id) {
+        if (Files.exists(root.resolve("queue").resolve(id.toString()))) {
+            return SolverStatus.SOLVING_SCHEDULED;
+        } else if (Files.exists(root.resolve("running").resolve(id.toString()))) {
+            return SolverStatus.SOLVING_ACTIVE;
+        }
+        return SolverStatus.NOT_SOLVING;
+    }
+
+    /**
+     * Rebuilds the solution of a job from its options and its last snapshot. The problem is only
+     * rebuilt once per instance, later calls just apply the newer snapshots.
+     */
+    public Optional<CommitteeSolution> loadSolution(UUID id) {
+        if (!exists(id)) {
+            return Optional.empty();
+        }
+        loadLock.lock();
+        try {
+            var solution = loadedSolutions.get(id);
+            if (solution == null) {
+                solution = new CommitteeSolution(id, loadOptions(id));
+                loadedSolutions.put(id, solution);
+                loadedSnapshotTimes.remove(id);
+            }
+            var snapshotFile = snapshotFile(id);
+            if (Files.exists(snapshotFile)) {
+                var snapshotTime = Files.getLastModifiedTime(snapshotFile);
+                if (!snapshotTime.equals(loadedSnapshotTimes.get(id))) {
+                    objectMapper.readValue(snapshotFile.toFile(), SolutionSnapshot.class)
+                            .applyTo(solution);
+                    loadedSnapshotTimes.put(id, snapshotTime);
+                }
+            }
+            return Optional.of(solution);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load the solution " + id, e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Path problemFile(UUID id) {
+        return root.resolve("problems").resolve(id + ".json");
+    }
+
+    private Path snapshotFile(UUID id) {
+        return root.resolve("solutions").resolve(id + ".json");
+    }
+
+    private boolean move(UUID id, String from, String to) throws IOException {
+        try {
+            Files.move(root.resolve(from).resolve(id.toString()),
+                    root.resolve(to).resolve(id.toString()), StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    private boolean writeOwner(UUID id) throws IOException {
+        try {
+            // Not created again if the claim was moved back to the queue meanwhile
+            Files.writeString(root.resolve("running").resolve(id.toString()), instanceId,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void writeAtomically(Path file, byte[] content) throws IOException {
+        var temporary = Files.createTempFile(file.getParent(), ".", ".tmp");
+        try {
+            Files.write(temporary, content);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            // Claimed meanwhile by another instance, sorted first and skipped by the claim
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package fr.cirad.jobs;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolutionSnapshot;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.rest.AdmissionControl;
+import fr.cirad.rest.CommitteeSolutionResource;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Polls the {@link JobStore} on worker instances: claims queued jobs while there is capacity,
+ * writes back the best solutions of the running ones and forwards the stop requests. Writing
+ * the snapshots from the poll loop throttles them to one per job and poll interval. Jobs are
+ * claimed in order while the {@link AdmissionControl} heap and solver budgets admit them, the
+ * others stay queued. The claims of the running jobs are renewed on every poll, the expired
+ * claims of the other workers are queued again and resumed from their last snapshot.
+ */
+@ApplicationScoped
+public class JobWorker {
+
+    @Inject
+    JobStore jobStore;
+
+    @Inject
+    CommitteeSolutionResource resource;
+
+    @Inject
+    AdmissionControl admissionControl;
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "dicoop.jobs.poll-interval", defaultValue = "1s")
+    Duration pollInterval;
+
+    // Defaults to the number of jobs solved in parallel by the solver manager
+    @ConfigProperty(name = "dicoop.jobs.worker-capacity")
+    Optional<Integer> capacity;
+
+    // Placeholder for a running job without written solution yet
+    private static final CommitteeSolution NOT_WRITTEN = new CommitteeSolution();
+
+    // Running jobs of this instance, with the last best solution written to the store
+    private final Map<UUID, CommitteeSolution> runningJobs = new ConcurrentHashMap<>();
+
+    // Jobs whose claim was lost, still terminating on this instance
+    private final Set<UUID> lostJobs = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!jobStore.isWorker()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void poll() {
+        try {
+            for (var id : jobStore.requeueExpiredClaims()) {
+                log.warnf("The claim of the job %s has expired, queued again", id);
+            }
+            for (var id : runningJobs.keySet()) {
+                if (!jobStore.renew(id)) {
+                    lose(id);
+                    continue;
+                }
+                writeBestSolution(id, SolverStatus.SOLVING_ACTIVE);
+                if (jobStore.isStopRequested(id)) {
+                    resource.stopSolving(id);
+                }
+            }
+            for (var id : jobStore.getQueuedJobs()) {
+                if (runningJobs.size() >= getCapacity()) {
+                    break;
+                }
+                var options = jobStore.loadOptions(id);
+                if (!admissionControl.fits(options)) {
+                    // Would stay queued forever
+                    if (jobStore.claim(id)) {
+                        log.errorf("The job %s needs more than the admission budget", id);
+                        jobStore.finish(id);
+                    }
+                    continue;
+                }
+                if (!admissionControl.tryAdmit(id, options)) {
+                    // Keeps the queue order, the job is admitted once running jobs terminate
+                    break;
+                }
+                if (jobStore.claim(id)) {
+                    start(id, options);
+                } else {
+                    admissionControl.release(id);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep polling, the next iteration may succeed
+            log.error("Cannot poll the job store", e);
+        }
+    }
+
+    private void start(UUID id, SolverOptions options) throws IOException {
+        // Written by the previous worker of a job queued again
+        var snapshot = jobStore.loadSnapshot(id).orElse(null);
+        log.infof(snapshot == null ? "Claimed the job %s" : "Claimed the job %s, resumed", id);
+        // Registered first, as the job may terminate before startSolving returns
+        runningJobs.put(id, NOT_WRITTEN);
+        try {
+            resource.startSolving(id, options, snapshot, this::finish);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Cannot solve the job %s", id);
+            runningJobs.remove(id);
+            admissionControl.release(id);
+            jobStore.finish(id);
+        }
+    }
+
+    // Stops solving a job claimed meanwhile by another worker, leaving its files to that worker
+    private void lose(UUID id) {
+        log.warnf("Lost the claim of the job %s, stopping it", id);
+        lostJobs.add(id);
+        runningJobs.remove(id);
+        resource.stopSolving(id);
+    }
+
+    private void finish(UUID id) {
+        admissionControl.release(id);
+        if (lostJobs.remove(id)) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                try {
+                    writeBestSolution(id, SolverStatus.NOT_SOLVING);
+                } finally {
+                    runningJobs.remove(id);
+                }
+            }
+            jobStore.finish(id);
+        } catch (IOException | RuntimeException e) {
+            log.errorf(e, "Cannot finish the job %s", id);
+        }
+    }
+
+    private synchronized void writeBestSolution(UUID id, SolverStatus solverStatus)
+            throws IOException {
+        var written = runningJobs.get(id);
+        if (written == null) {
+            // Finished meanwhile
+            return;
+        }
+        var best = resource.findById(id);
+        if (best != written || solverStatus == SolverStatus.NOT_SOLVING) {
+            var snapshot = SolutionSnapshot.of(best);
+            snapshot.solverStatus = solverStatus;
+            jobStore.saveSnapshot(snapshot);
+            runningJobs.replace(id, best);
+        }
+    }
+
+    private int getCapacity() {
+        return capacity.orElse(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+}
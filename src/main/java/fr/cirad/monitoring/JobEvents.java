@@ -0,0 +1,210 @@
+package fr.cirad.monitoring;
+
+import java.util.UUID;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the solver jobs, tagged with the job id so that the CPU and
+ * allocation samples of a recording can be related to the jobs running meanwhile.
+ * <p>
+ * The events are disabled unless a recording enables them, e.g. with
+ * {@code -XX:StartFlightRecording:settings=profile} and the {@code fr.cirad.*} names. Each event
+ * is created where it happens, begun when it spans some work, and committed with its values by
+ * its {@code commit} overload. The values are only filled when enabled, the job id only being
+ * formatted then, so the disabled events cost the allocation of an empty object, usually removed
+ * by the JIT.
+ */
+public final class JobEvents {
+
+    private static final String CATEGORY = "Dicoop";
+
+    private JobEvents() {}
+
+    @Name("fr.cirad.JobSubmitted")
+    @Label("Job Submitted")
+    @Description("From the request to the acceptance of the job, queued or solving")
+    @Category({CATEGORY, "Jobs"})
+    @StackTrace(false)
+    public static final class Submitted extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Participants")
+        int participants;
+
+        public void commit(UUID id, int participants) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                this.participants = participants;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Spans the solving of a job, from its start on this instance to its termination.
+     */
+    @Name("fr.cirad.JobSolving")
+    @Label("Job Solving")
+    @Description("From the start of the solver to its termination")
+    @Category({CATEGORY, "Jobs"})
+    @StackTrace(false)
+    public static final class Solving extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Best Score")
+        String score;
+
+        @Label("Failed")
+        boolean failed;
+
+        /**
+         * Begins the event, at the start of the job.
+         */
+        public void begin(UUID id, String solver) {
+            if (isEnabled()) {
+                this.jobId = String.valueOf(id);
+                this.solver = solver;
+                begin();
+            }
+        }
+
+        /**
+         * Commits the event, at the termination of the job.
+         */
+        public void commit(Object score, boolean failed) {
+            // Not begun if the recording started meanwhile
+            if (jobId != null && shouldCommit()) {
+                this.score = String.valueOf(score);
+                this.failed = failed;
+                commit();
+            }
+        }
+    }
+
+    @Name("fr.cirad.NewBestSolution")
+    @Label("New Best Solution")
+    @Category({CATEGORY, "Jobs"})
+    @StackTrace(false)
+    public static final class NewBestSolution extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Score")
+        String score;
+
+        @Label("Best Solutions")
+        @Description("Number of best solutions found by the job so far")
+        long count;
+
+        public void commit(UUID id, Object score, long count) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                this.score = String.valueOf(score);
+                this.count = count;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Copy of the planning state by the solver, for each new best solution.
+     */
+    @Name("fr.cirad.SolutionCloned")
+    @Label("Solution Cloned")
+    @Category({CATEGORY, "Solutions"})
+    @StackTrace(false)
+    public static final class Cloned extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Assignments")
+        int assignments;
+
+        public void commit(UUID id, int assignments) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                this.assignments = assignments;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Best solution kept for the clients, with its changes for polling.
+     */
+    @Name("fr.cirad.SolutionStored")
+    @Label("Solution Stored")
+    @Category({CATEGORY, "Solutions"})
+    @StackTrace(false)
+    public static final class Stored extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        public void commit(UUID id) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                commit();
+            }
+        }
+    }
+
+    @Name("fr.cirad.ScoreExplained")
+    @Label("Score Explained")
+    @Category({CATEGORY, "Solutions"})
+    @StackTrace(false)
+    public static final class ScoreExplained extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        public void commit(UUID id) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                commit();
+            }
+        }
+    }
+
+    @Name("fr.cirad.SolutionSerialized")
+    @Label("Solution Serialized")
+    @Category({CATEGORY, "Solutions"})
+    @StackTrace(false)
+    public static final class Serialized extends Event {
+
+        @Label("Job Id")
+        String jobId;
+
+        @Label("Target")
+        @Description("response or snapshot")
+        String target;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        public void commit(UUID id, String target, long size) {
+            if (shouldCommit()) {
+                this.jobId = String.valueOf(id);
+                this.target = target;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+}
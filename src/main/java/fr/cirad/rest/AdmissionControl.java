@@ -0,0 +1,141 @@
+package fr.cirad.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import fr.cirad.domain.FootprintEstimator;
+import fr.cirad.domain.SolverOptions;
+import io.quarkus.runtime.configuration.MemorySize;
+
+/**
+ * Admits jobs on this instance while the sum of their estimated heap footprints stays under a
+ * budget, so that a few huge problems solved together cannot exhaust the heap and lose every job
+ * held in memory. A job is released once its solver has terminated.
+ * <p>
+ * When a solver budget is set, the solvers of the admitted jobs are also counted, a portfolio
+ * counting each of its members, as the solver managers of the profiles and the portfolios each
+ * have their own threads and may otherwise solve more jobs at once than there are cores for.
+ * Without it, the jobs beyond the parallel solvers of a solver manager wait in its queue.
+ */
+@ApplicationScoped
+public class AdmissionControl {
+
+    // Suggested delay before resubmitting a rejected problem
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private static final long MB = 1024 * 1024;
+
+    // Off until the costs of FootprintEstimator are calibrated
+    @ConfigProperty(name = "dicoop.admission.enabled", defaultValue = "false")
+    boolean enabled;
+
+    // Defaults to a ratio of the maximum heap
+    @ConfigProperty(name = "dicoop.admission.heap-budget")
+    Optional<MemorySize> heapBudget;
+
+    @ConfigProperty(name = "dicoop.admission.heap-ratio", defaultValue = "0.7")
+    double heapRatio;
+
+    // Unlimited unless set
+    @ConfigProperty(name = "dicoop.admission.solvers")
+    Optional<Integer> solverBudget;
+
+    private record Admission(long bytes, int solvers) {
+    }
+
+    private final Map<UUID, Admission> admittedJobs = new HashMap<>();
+    private long admittedBytes;
+    private int admittedSolvers;
+
+    /**
+     * Admits the job, or rejects it.
+     *
+     * @throws ClientErrorException 413 if the problem would not fit even on an idle instance.
+     * @throws ServiceUnavailableException if it does not fit beside the running jobs.
+     */
+    public void admit(UUID id, SolverOptions options) {
+        var admission = new Admission(FootprintEstimator.estimate(options),
+                FootprintEstimator.getSolverCount(options));
+        if (!fits(admission)) {
+            throw new ClientErrorException("The problem needs an estimated "
+                    + admission.bytes() / MB + " MB of heap and " + admission.solvers()
+                    + " solvers, more than the " + getBudget() / MB + " MB"
+                    + (solverBudget.isPresent() ? " and " + getSolverBudget() + " solvers" : "")
+                    + " budget of the instance", 413);
+        }
+        if (!tryAdmit(id, admission)) {
+            throw new ServiceUnavailableException("The problem needs an estimated "
+                    + admission.bytes() / MB + " MB of heap and " + admission.solvers()
+                    + " solvers, the running jobs leave " + getAvailable() / MB + " MB of the "
+                    + getBudget() / MB + " MB budget"
+                    + (solverBudget.isPresent() ? " and " + getAvailableSolvers() + " of the "
+                            + getSolverBudget() + " solvers" : "")
+                    + ", retry later", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    /**
+     * @return Whether the job has been admitted.
+     */
+    public boolean tryAdmit(UUID id, SolverOptions options) {
+        return tryAdmit(id, new Admission(FootprintEstimator.estimate(options),
+                FootprintEstimator.getSolverCount(options)));
+    }
+
+    /**
+     * @return Whether the problem fits in the budget of an idle instance.
+     */
+    public boolean fits(SolverOptions options) {
+        return fits(new Admission(FootprintEstimator.estimate(options),
+                FootprintEstimator.getSolverCount(options)));
+    }
+
+    public synchronized void release(UUID id) {
+        var admission = admittedJobs.remove(id);
+        if (admission != null) {
+            admittedBytes -= admission.bytes();
+            admittedSolvers -= admission.solvers();
+        }
+    }
+
+    private synchronized boolean tryAdmit(UUID id, Admission admission) {
+        if (!enabled || admittedJobs.containsKey(id)) {
+            return true;
+        }
+        if (admittedBytes + admission.bytes() > getBudget()
+                || admittedSolvers + admission.solvers() > getSolverBudget()) {
+            return false;
+        }
+        admittedJobs.put(id, admission);
+        admittedBytes += admission.bytes();
+        admittedSolvers += admission.solvers();
+        return true;
+    }
+
+    private boolean fits(Admission admission) {
+        return !enabled || (admission.bytes() <= getBudget()
+                && admission.solvers() <= getSolverBudget());
+    }
+
+    private synchronized long getAvailable() {
+        return Math.max(0, getBudget() - admittedBytes);
+    }
+
+    private synchronized int getAvailableSolvers() {
+        return Math.max(0, getSolverBudget() - admittedSolvers);
+    }
+
+    int getSolverBudget() {
+        return solverBudget.orElse(Integer.MAX_VALUE);
+    }
+
+    long getBudget() {
+        return heapBudget.map(MemorySize::asLongValue)
+                .orElseGet(() -> (long) (Runtime.getRuntime().maxMemory() * heapRatio));
+    }
+}
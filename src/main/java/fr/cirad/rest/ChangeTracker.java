@@ -0,0 +1,144 @@
+package fr.cirad.rest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolutionChanges;
+import fr.cirad.domain.SolutionSnapshot;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Numbers the successive best solutions of each job, and keeps the planning values changed by the
+ * last versions, so that polling clients only receive what changed since the version they have.
+ * Clients further behind than the kept versions, or polling a job solved by another instance,
+ * receive the whole planning state.
+ * <p>
+ * The versions of a new history, e.g. after the previous one was evicted, start after every
+ * version issued by this instance and after the current time in microseconds, so that a version
+ * of an evicted history, or of a previous run, is never taken for one of the new history.
+ */
+@ApplicationScoped
+class ChangeTracker {
+
+    @ConfigProperty(name = "dicoop.changes.history", defaultValue = "64")
+    int historySize;
+
+    final Map<UUID, History> histories =
+            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+
+    // Highest version issued, so that the new histories start after it
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    void record(CommitteeSolution solution) {
+        var snapshot = SolutionSnapshot.of(solution);
+        histories.computeIfAbsent(solution.id, id -> new History(lastVersion.updateAndGet(
+                last -> Math.max(last, System.currentTimeMillis() * 1_000))))
+                .record(snapshot);
+    }
+
+    /**
+     * @param since The version known by the client, 0 for none.
+     * @param solution Supplies the solution when the job has no history on this instance.
+     */
+    SolutionChanges getChanges(UUID id, long since, SolverStatus solverStatus,
+            Supplier<CommitteeSolution> solution) {
+        var history = histories.get(id);
+        var changes = history == null ? full(SolutionSnapshot.of(solution.get()), 0)
+                : history.getChanges(since);
+        changes.id = id;
+        changes.solverStatus = solverStatus;
+        return changes;
+    }
+
+    private static SolutionChanges full(SolutionSnapshot snapshot, long version) {
+        var changes = new SolutionChanges();
+        changes.version = version;
+        changes.full = true;
+        changes.score = snapshot.score;
+        changes.committees.putAll(snapshot.committees);
+        changes.timeSlots.putAll(snapshot.timeSlots);
+        return changes;
+    }
+
+    // Values of the new map differing from the old one, null for the removed keys
+    private static <K> Map<K, String> diff(Map<K, String> previous, Map<K, String> current) {
+        Map<K, String> changed = new HashMap<>();
+        current.forEach((key, value) -> {
+            if (!value.equals(previous.get(key))) {
+                changed.put(key, value);
+            }
+        });
+        previous.keySet().forEach(key -> {
+            if (!current.containsKey(key)) {
+                changed.put(key, null);
+            }
+        });
+        return changed;
+    }
+
+    private record Change(long version, Map<Long, String> committees,
+            Map<String, String> timeSlots) {
+    }
+
+    final class History {
+
+        // Versions of this history are above it
+        private final long epoch;
+        private long version;
+        private SolutionSnapshot current;
+        // Changes of the last versions, the oldest first
+        private final Deque<Change> changes = new ArrayDeque<>();
+
+        History(long epoch) {
+            this.epoch = epoch;
+            this.version = epoch;
+        }
+
+        synchronized void record(SolutionSnapshot snapshot) {
+            if (current != null) {
+                var committees = diff(current.committees, snapshot.committees);
+                var timeSlots = diff(current.timeSlots, snapshot.timeSlots);
+                if (committees.isEmpty() && timeSlots.isEmpty()) {
+                    // Same planning values, only the score may differ
+                    current = snapshot;
+                    return;
+                }
+                changes.addLast(new Change(version + 1, committees, timeSlots));
+                if (changes.size() > historySize) {
+                    changes.removeFirst();
+                }
+            }
+            version++;
+            current = snapshot;
+            lastVersion.accumulateAndGet(version, Math::max);
+        }
+
+        synchronized SolutionChanges getChanges(long since) {
+            boolean known = since == version || (since > epoch && since < version
+                    && !changes.isEmpty() && changes.getFirst().version() <= since + 1);
+            if (!known) {
+                return full(current, version);
+            }
+            var result = new SolutionChanges();
+            result.version = version;
+            result.score = current.score;
+            // Applied oldest first, so that the last change of a value wins
+            for (var change : changes) {
+                if (change.version() > since) {
+                    result.committees.putAll(change.committees());
+                    result.timeSlots.putAll(change.timeSlots());
+                }
+            }
+            return result;
+        }
+    }
+}
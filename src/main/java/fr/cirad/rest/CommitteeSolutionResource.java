@@ -1,37 +1,102 @@
 package fr.cirad.rest;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import ai.timefold.solver.core.api.score.ScoreManager;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.ExactResult;
+import fr.cirad.domain.SolutionChanges;
+import fr.cirad.domain.SolutionSnapshot;
 import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.WhatIfEdit;
+import fr.cirad.domain.WhatIfResult;
+import fr.cirad.jobs.CheckpointStore;
+import fr.cirad.jobs.JobStore;
+import fr.cirad.monitoring.JobEvents;
+import fr.cirad.solver.ExactSolver;
+import fr.cirad.solver.PortfolioSolver;
+import fr.cirad.solver.PortfolioSolver.Portfolio;
+import fr.cirad.solver.SolverProfiles;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import net.jodah.expiringmap.ExpiringMap;
 
 @Path("api/committeeSolution")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+// Request bodies are read without blocking, the endpoints then run on virtual threads when the
+// JVM supports them (Java 21+) and on the worker pool otherwise
+@RunOnVirtualThread
 public class CommitteeSolutionResource {
 
     static Map<UUID, CommitteeSolution> solutions =
             ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
 
+    // The solver manager running each job, as it depends on the requested profile
+    static Map<UUID, SolverManager<CommitteeSolution, UUID>> jobSolverManagers =
+            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+
+    // The solvers racing on each portfolio job
+    static Map<UUID, Portfolio> portfolios =
+            ExpiringMap.builder().maxSize(50).expiration(1, TimeUnit.DAYS).build();
+
+    @ConfigProperty(name = "dicoop.feasibility.refuse-infeasible", defaultValue = "false")
+    boolean refuseInfeasible;
+
     @Inject
     SolverManager<CommitteeSolution, UUID> solverManager;
 
+    @Inject
+    PortfolioSolver portfolioSolver;
+
+    @Inject
+    SolverProfiles solverProfiles;
+
+    @Inject
+    ProblemCache problemCache;
+
+    @Inject
+    JobStore jobStore;
+
+    @Inject
+    SolutionExport solutionExport;
+
+    @Inject
+    AdmissionControl admissionControl;
+
+    @Inject
+    CheckpointStore checkpointStore;
+
+    @Inject
+    ExactSolver exactSolver;
+
+    @Inject
+    WhatIfAnalyzer whatIfAnalyzer;
+
+    @Inject
+    ChangeTracker changeTracker;
+
     @Inject
     ScoreManager<CommitteeSolution, HardMediumSoftScore> scoreManager;
 
@@ -45,49 +110,283 @@ public class CommitteeSolutionResource {
         // to avoid the race condition that the solver terminates between them
         SolverStatus solverStatus = getSolverStatus(id);
         CommitteeSolution solution = findById(id);
+        var event = new JobEvents.ScoreExplained();
+        event.begin();
         scoreManager.updateScore(solution); // Sets the score
         solution.solverStatus = solverStatus;
         var scoreExplanation = scoreManager.explainScore(solution);
         log.info(scoreExplanation);
         solution.scoreExplanation = scoreExplanation.toString();
+        event.commit(id);
         return solution;
     }
 
+    /**
+     * Polls the planning values changed since a version, the whole planning state if the version
+     * is too old.
+     */
+    @GET
+    @Path("/{id}/changes")
+    public SolutionChanges getChanges(@PathParam(value = "id") UUID id,
+            @QueryParam("since") long since) {
+        return changeTracker.getChanges(id, since, getSolverStatus(id), () -> findById(id));
+    }
+
+    @GET
+    @Path("/{id}/csv")
+    @Produces(SolutionExport.CSV)
+    public StreamingOutput exportCsv(@PathParam(value = "id") UUID id) {
+        return solutionExport.csv(findById(id));
+    }
+
+    @GET
+    @Path("/{id}/ndjson")
+    @Produces(SolutionExport.NDJSON)
+    public StreamingOutput exportNdjson(@PathParam(value = "id") UUID id) {
+        return solutionExport.ndjson(findById(id));
+    }
+
+    /**
+     * Scores edits of the current best solution, applied in order, without changing it.
+     */
+    @POST
+    @Path("/{id}/whatIf")
+    public WhatIfResult whatIf(@PathParam(value = "id") UUID id, List<WhatIfEdit> edits) {
+        return whatIfAnalyzer.analyze(findById(id), edits);
+    }
+
     @POST
     @Path("solve")
-    public CommitteeSolution solve(SolverOptions options) {
-        var solution = initSolution(options);
-        solverManager.solveAndListen(solution.id, this::findById, this::save);
+    public CommitteeSolution solve(SolverOptions options,
+            @QueryParam("noCache") boolean noCache) {
+        var id = UUID.randomUUID();
+        var submitted = new JobEvents.Submitted();
+        submitted.begin();
+        int participants = options.participants == null ? 0 : options.participants.size();
+        // Before queuing the job, which would otherwise fail on the worker
+        try {
+            solverProfiles.validate(options);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+        String hash = null;
+        if (problemCache.isEnabled() && !noCache) {
+            // Identical problems return the job already solving or solved them
+            hash = problemCache.hash(options);
+            var identicalJob = problemCache.register(hash, id, this::isKnown);
+            if (identicalJob.isPresent()) {
+                return findById(identicalJob.get());
+            }
+        }
+        CommitteeSolution solution;
+        try {
+            if (jobStore.isEnabled()) {
+                // Serialized before the solution initializes the participants
+                var problem = jobStore.serialize(options);
+                solution = new CommitteeSolution(id, options);
+                checkFeasibility(solution, options);
+                jobStore.enqueue(id, problem);
+            } else {
+                admissionControl.admit(id, options);
+                if (checkpointStore.isEnabled()) {
+                    // Serialized before the solution initializes the participants
+                    checkpointStore.start(id, jobStore.serialize(options));
+                    solution = startSolving(id, options, null, jobId -> {
+                        admissionControl.release(jobId);
+                        checkpointStore.finish(jobId);
+                    });
+                } else {
+                    solution = startSolving(id, options, admissionControl::release);
+                }
+            }
+        } catch (RuntimeException e) {
+            admissionControl.release(id);
+            if (checkpointStore.isEnabled()) {
+                checkpointStore.finish(id);
+            }
+            if (hash != null) {
+                problemCache.remove(hash);
+            }
+            if (e instanceof IllegalArgumentException) {
+                // Invalid options found while building the solution, e.g. the weights
+                throw new BadRequestException(e.getMessage(), e);
+            }
+            throw e;
+        }
+        // Only the jobs accepted, not the rejected or cached ones
+        submitted.commit(id, participants);
         return solution;
     }
 
+    /**
+     * Solves a small problem exactly, within the spent limit of the options or the configured
+     * one. An optimal solution is then available under the id of the result.
+     */
+    @POST
+    @Path("solveExact")
+    public ExactResult solveExact(SolverOptions options) {
+        int participants = options.participants == null ? 0 : options.participants.size();
+        if (participants > exactSolver.getMaxParticipants()) {
+            throw new ClientErrorException("The exact solver accepts at most "
+                    + exactSolver.getMaxParticipants() + " participants, the problem has "
+                    + participants, 413);
+        }
+        CommitteeSolution solution;
+        ExactResult result;
+        try {
+            // The weights of the options are parsed with the solution
+            solution = new CommitteeSolution(UUID.randomUUID(), options);
+            result = exactSolver.solve(solution, options.spentLimitSeconds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+        if (result.status == ExactResult.Status.OPTIMAL) {
+            save(solution);
+        }
+        return result;
+    }
+
     @GET
     @Path("stopSolving/{id}")
     public String stopSolving(@PathParam(value = "id") UUID id) {
-        solverManager.terminateEarly(id);
+        if (portfolios.containsKey(id)) {
+            portfolios.get(id).terminateEarly();
+        } else if (jobStore.isEnabled() && !jobSolverManagers.containsKey(id)) {
+            jobStore.requestStop(id);
+        } else {
+            getSolverManager(id).terminateEarly(id);
+        }
         return "The solving solution " + id + " has been terminated.";
     }
 
-    CommitteeSolution initSolution(SolverOptions options) {
-        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+    /**
+     * Starts solving a problem on this instance.
+     *
+     * @param id The job id.
+     * @param options The problem.
+     * @param terminationListener Called with the job id once the solver has terminated.
+     * @return The initial solution.
+     */
+    public CommitteeSolution startSolving(UUID id, SolverOptions options,
+            Consumer<UUID> terminationListener) {
+        return startSolving(id, options, null, terminationListener);
+    }
+
+    /**
+     * Starts solving a problem on this instance, warm-started from a previous solution.
+     *
+     * @param id The job id.
+     * @param options The problem.
+     * @param snapshot The planning state to start from, or null to start from scratch.
+     * @param terminationListener Called with the job id once the solver has terminated.
+     * @return The initial solution.
+     */
+    public CommitteeSolution startSolving(UUID id, SolverOptions options,
+            SolutionSnapshot snapshot, Consumer<UUID> terminationListener) {
+        // Before the solution is kept under the id
+        solverProfiles.validate(options);
+        var bestSolutions = new AtomicLong();
+        Consumer<CommitteeSolution> bestSolutionConsumer = bestSolution -> {
+            new JobEvents.NewBestSolution().commit(id, bestSolution.score,
+                    bestSolutions.incrementAndGet());
+            save(bestSolution);
+        };
+        if (options.portfolio != null && !options.portfolio.isEmpty()) {
+            var solution = initSolution(id, options);
+            if (snapshot != null) {
+                snapshot.applyTo(solution);
+            }
+            var solving = new JobEvents.Solving();
+            solving.begin(id, "portfolio");
+            portfolios.put(id, portfolioSolver.start(solution, options, bestSolutionConsumer,
+                    jobId -> {
+                        var best = solutions.get(jobId);
+                        solving.commit(best == null ? null : best.score, false);
+                        terminationListener.accept(jobId);
+                    }));
+            return solution;
+        }
+        var jobSolverManager = solverProfiles.getSolverManager(options);
+        var configOverride = solverProfiles.getConfigOverride(options);
+        var solution = initSolution(id, options);
+        if (snapshot != null) {
+            snapshot.applyTo(solution);
+        }
+        jobSolverManagers.put(id, jobSolverManager);
+        var solving = new JobEvents.Solving();
+        solving.begin(id, options.profile != null ? options.profile : "default");
+        jobSolverManager.solveBuilder().withProblemId(id).withProblemFinder(this::findById)
+                .withBestSolutionConsumer(bestSolutionConsumer)
+                .withFinalBestSolutionConsumer(finalBestSolution -> {
+                    save(finalBestSolution);
+                    solving.commit(finalBestSolution.score, false);
+                    terminationListener.accept(id);
+                }).withExceptionHandler((jobId, exception) -> {
+                    log.errorf(exception, "Solving %s failed", jobId);
+                    solving.commit(null, true);
+                    terminationListener.accept(jobId);
+                }).withConfigOverride(configOverride).run();
+        return solution;
+    }
+
+    CommitteeSolution initSolution(UUID id, SolverOptions options) {
+        var solution = new CommitteeSolution(id, options);
+        checkFeasibility(solution, options);
         solutions.put(solution.id, solution);
+        changeTracker.record(solution);
         return solution;
     }
 
+    /**
+     * Refuses with 422 a problem that cannot be solved without hard penalties, when requested by
+     * the options or by default, listing the issues found.
+     */
+    void checkFeasibility(CommitteeSolution solution, SolverOptions options) {
+        boolean refuse = options.refuseInfeasible != null ? options.refuseInfeasible
+                : refuseInfeasible;
+        if (refuse && !solution.feasibilityIssues.isEmpty()) {
+            log.infof("Refused the infeasible problem %s: %s", solution.id,
+                    solution.feasibilityIssues);
+            throw new ClientErrorException(Response.status(422)
+                    .type(MediaType.APPLICATION_JSON).entity(solution.feasibilityIssues).build());
+        }
+    }
+
     SolverStatus getSolverStatus(UUID id) {
-        return solverManager.getSolverStatus(id);
+        if (portfolios.containsKey(id)) {
+            return portfolios.get(id).getSolverStatus();
+        }
+        if (jobStore.isEnabled() && !jobSolverManagers.containsKey(id)) {
+            return jobStore.getStatus(id);
+        }
+        return getSolverManager(id).getSolverStatus(id);
+    }
+
+    SolverManager<CommitteeSolution, UUID> getSolverManager(UUID id) {
+        return jobSolverManagers.getOrDefault(id, solverManager);
+    }
+
+    boolean isKnown(UUID id) {
+        return solutions.containsKey(id) || (jobStore.isEnabled() && jobStore.exists(id));
     }
 
-    @Transactional
-    CommitteeSolution findById(UUID id) {
+    public CommitteeSolution findById(UUID id) {
         if (!solutions.containsKey(id)) {
+            if (jobStore.isEnabled()) {
+                // Solved by another instance
+                return jobStore.loadSolution(id).orElseThrow(() -> new IllegalStateException(
+                        "There is no solution with id (" + id + ")."));
+            }
             throw new IllegalStateException("There is no solution with id (" + id + ").");
         }
         return solutions.get(id);
     }
 
-    @Transactional
     void save(CommitteeSolution solution) {
+        var event = new JobEvents.Stored();
+        event.begin();
         solutions.put(solution.id, solution);
+        changeTracker.record(solution);
+        event.commit(solution.id);
     }
 }
@@ -0,0 +1,106 @@
+package fr.cirad.rest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.hash.Hashing;
+import fr.cirad.domain.SolverOptions;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Remembers which job solves a given problem, so that resubmitting identical solver options
+ * returns the existing job instead of starting a new solve. Problems are identified by a hash of
+ * their canonical JSON form, with the participants sorted by name. The refusal of infeasible
+ * problems is part of it, so that an infeasible problem accepted once is still refused when
+ * resubmitted with another choice.
+ */
+@ApplicationScoped
+public class ProblemCache {
+
+    private static final ObjectMapper CANONICAL_MAPPER =
+            JsonMapper.builder().enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                    .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).build();
+
+    @ConfigProperty(name = "dicoop.problem-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "dicoop.problem-cache.max-size", defaultValue = "50")
+    int maxSize;
+
+    private Map<String, UUID> jobsByHash;
+
+    // Not a monitor, which would pin the virtual threads of the requests on Java 21
+    private final ReentrantLock registerLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        jobsByHash = ExpiringMap.builder().maxSize(maxSize).expiration(1, TimeUnit.DAYS).build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the job id for the problem, unless an identical problem is already known.
+     *
+     * @param hash the problem hash
+     * @param id the id of the job about to be started
+     * @param isKnown tells whether a previously registered job is still available
+     * @return the id of the identical job, or empty if the given job has been registered
+     */
+    public Optional<UUID> register(String hash, UUID id, Predicate<UUID> isKnown) {
+        registerLock.lock();
+        try {
+            var existing = jobsByHash.get(hash);
+            if (existing != null && isKnown.test(existing)) {
+                return Optional.of(existing);
+            }
+            jobsByHash.put(hash, id);
+            return Optional.empty();
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    public void remove(String hash) {
+        jobsByHash.remove(hash);
+    }
+
+    public String hash(SolverOptions options) {
+        var normalized = new SolverOptions();
+        normalized.settings = options.settings;
+        normalized.profile = options.profile;
+        normalized.spentLimitSeconds = options.spentLimitSeconds;
+        normalized.unimprovedSpentLimitSeconds = options.unimprovedSpentLimitSeconds;
+        normalized.bestScoreLimit = options.bestScoreLimit;
+        normalized.algorithm = options.algorithm;
+        normalized.strategy = options.strategy;
+        normalized.portfolio = options.portfolio;
+        normalized.refuseInfeasible = options.refuseInfeasible;
+        if (options.participants != null) {
+            normalized.participants = new ArrayList<>(options.participants);
+            normalized.participants.sort(Comparator.comparing(p -> p.name,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        try {
+            return Hashing.sha256().hashBytes(CANONICAL_MAPPER.writeValueAsBytes(normalized))
+                    .toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The solver options cannot be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package fr.cirad.rest;
+
+import java.io.IOException;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import com.google.common.io.CountingOutputStream;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.monitoring.JobEvents;
+
+/**
+ * Records how long the solutions returned by the endpoints take to serialize, and their size,
+ * as {@link JobEvents.Serialized} events. The output is only wrapped while a recording enables
+ * the event.
+ */
+@Provider
+public class SerializedSizeInterceptor implements WriterInterceptor {
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        var event = new JobEvents.Serialized();
+        if (!(context.getEntity() instanceof CommitteeSolution solution) || !event.isEnabled()) {
+            context.proceed();
+            return;
+        }
+        var output = new CountingOutputStream(context.getOutputStream());
+        context.setOutputStream(output);
+        event.begin();
+        try {
+            context.proceed();
+        } finally {
+            event.commit(solution.id, "response", output.getCount());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package fr.cirad.rest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Streams the assignments of a solution as flat rows, one per assigned evaluator: committee,
+ * evaluated person, evaluator, evaluator type, time slot and distance. Rows are written straight
+ * from the committee assignments, so memory does not grow with the size of the problem.
+ */
+@ApplicationScoped
+class SolutionExport {
+
+    static final String CSV = "text/csv";
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final String[] HEADER =
+            {"committee", "evaluated", "evaluator", "type", "timeslot", "distance"};
+
+    // Rows are flushed to the client in chunks of this many rows
+    private static final int ROWS_PER_CHUNK = 256;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    StreamingOutput csv(CommitteeSolution solution) {
+        return output -> {
+            Writer writer =
+                    new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writeCsvRow(writer, HEADER);
+            int rows = 0;
+            for (var assignment : solution.committeeAssignments) {
+                if (assignment.committee == null) {
+                    continue;
+                }
+                writeCsvRow(writer, values(assignment, assignment.getDistance()));
+                if (++rows % ROWS_PER_CHUNK == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        };
+    }
+
+    StreamingOutput ndjson(CommitteeSolution solution) {
+        return output -> {
+            // The generator must not close the response stream, the container does it
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.setRootValueSeparator(null);
+                int rows = 0;
+                for (var assignment : solution.committeeAssignments) {
+                    if (assignment.committee == null) {
+                        continue;
+                    }
+                    // Looked up once, for the text value and the number
+                    int distance = assignment.getDistance();
+                    var values = values(assignment, distance);
+                    generator.writeStartObject();
+                    for (int i = 0; i < HEADER.length - 1; i++) {
+                        generator.writeStringField(HEADER[i], values[i]);
+                    }
+                    generator.writeNumberField(HEADER[HEADER.length - 1], distance);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    if (++rows % ROWS_PER_CHUNK == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+    }
+
+    private static String[] values(CommitteeAssignment assignment, int distance) {
+        var committee = assignment.committee;
+        var evaluator = assignment.assignedPerson;
+        return new String[] {committee.id, committee.evaluatedPerson.name, evaluator.name,
+                evaluator.personType == null ? "" : evaluator.personType.name,
+                committee.timeSlot == null ? "" : committee.timeSlot.name,
+                String.valueOf(distance)};
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // Quotes the values holding a separator, a quote or a line break (RFC 4180)
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
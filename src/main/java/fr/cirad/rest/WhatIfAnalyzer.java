@@ -0,0 +1,162 @@
+package fr.cirad.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolutionUpdatePolicy;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.CommitteeSolutionCloner;
+import fr.cirad.domain.TimeSlot;
+import fr.cirad.domain.WhatIfEdit;
+import fr.cirad.domain.WhatIfResult;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * Scores manual edits of a solution without changing it. Each job keeps a working copy of its
+ * best solution, with the score analysis of the copy unedited: the edits are applied to the copy,
+ * analyzed, then undone, so that a request costs a single score calculation. The copy is rebuilt
+ * when the job has a new best solution.
+ */
+@ApplicationScoped
+class WhatIfAnalyzer {
+
+    private static final CommitteeSolutionCloner CLONER = new CommitteeSolutionCloner();
+
+    @Inject
+    SolutionManager<CommitteeSolution, HardMediumSoftScore> solutionManager;
+
+    final Map<UUID, WorkingCopy> workingCopies =
+            ExpiringMap.builder().maxSize(20).expiration(1, TimeUnit.HOURS).build();
+
+    WhatIfResult analyze(CommitteeSolution solution, List<WhatIfEdit> edits) {
+        long start = System.nanoTime();
+        var workingCopy = workingCopies.get(solution.id);
+        if (workingCopy == null || workingCopy.source != solution) {
+            workingCopy = new WorkingCopy(solution);
+            workingCopies.put(solution.id, workingCopy);
+        }
+        synchronized (workingCopy) {
+            List<Runnable> undoes = new ArrayList<>();
+            try {
+                for (var edit : edits) {
+                    workingCopy.apply(edit, undoes);
+                }
+                var analysis = analyze(workingCopy.copy);
+                var result = new WhatIfResult();
+                result.score = analysis.score().toString();
+                var diff = analysis.diff(workingCopy.baseline);
+                result.scoreDelta = diff.score().toString();
+                for (var constraint : diff.constraintMap().values()) {
+                    var delta = constraint.score();
+                    var name = constraint.constraintRef().constraintName();
+                    if (delta.compareTo(HardMediumSoftScore.ZERO) < 0) {
+                        result.brokenConstraints.put(name, delta.toString());
+                    } else if (delta.compareTo(HardMediumSoftScore.ZERO) > 0) {
+                        result.improvedConstraints.put(name, delta.toString());
+                    }
+                }
+                result.timeMillis = (System.nanoTime() - start) / 1_000_000;
+                return result;
+            } finally {
+                Collections.reverse(undoes);
+                undoes.forEach(Runnable::run);
+            }
+        }
+    }
+
+    // The assignments lists of the committees are kept up to date by the edits
+    private ScoreAnalysis<HardMediumSoftScore> analyze(CommitteeSolution solution) {
+        return solutionManager.analyze(solution, ScoreAnalysisFetchPolicy.FETCH_SHALLOW,
+                SolutionUpdatePolicy.UPDATE_SCORE_ONLY);
+    }
+
+    final class WorkingCopy {
+
+        final CommitteeSolution source;
+        final CommitteeSolution copy;
+        final ScoreAnalysis<HardMediumSoftScore> baseline;
+        final Map<String, Committee> committees;
+        final Map<String, TimeSlot> timeSlots;
+        final Map<String, List<CommitteeAssignment>> assignments;
+
+        WorkingCopy(CommitteeSolution source) {
+            this.source = source;
+            copy = CLONER.cloneSolution(source);
+            baseline = analyze(copy);
+            committees = copy.committees.stream()
+                    .collect(Collectors.toMap(c -> c.id, Function.identity()));
+            timeSlots = copy.timeSlots.stream()
+                    .collect(Collectors.toMap(t -> t.name, Function.identity(), (t1, t2) -> t1));
+            assignments = copy.committeeAssignments.stream()
+                    .collect(Collectors.groupingBy(a -> a.assignedPerson.name));
+        }
+
+        void apply(WhatIfEdit edit, List<Runnable> undoes) {
+            if (edit.evaluator != null) {
+                var personAssignments = assignments.get(edit.evaluator);
+                if (personAssignments == null) {
+                    throw new BadRequestException("Unknown evaluator " + edit.evaluator);
+                }
+                var from = getCommittee(edit.fromCommittee);
+                var to = getCommittee(edit.toCommittee);
+                var assignment = personAssignments.stream().filter(a -> a.committee == from)
+                        .findFirst()
+                        .orElseThrow(() -> new BadRequestException(edit.evaluator + " has no "
+                                + (from == null ? "unassigned assignment"
+                                        : "assignment to " + from.id)));
+                // Restored at its place, the order of the assignments of a committee being kept
+                int index = from == null ? -1 : from.assignments.indexOf(assignment);
+                move(assignment, to, -1);
+                undoes.add(() -> move(assignment, from, index));
+            } else if (edit.committee != null) {
+                var committee = getCommittee(edit.committee);
+                var timeSlot = edit.timeSlot == null ? null : timeSlots.get(edit.timeSlot);
+                if (edit.timeSlot != null && timeSlot == null) {
+                    throw new BadRequestException("Unknown time slot " + edit.timeSlot);
+                }
+                var previous = committee.timeSlot;
+                committee.timeSlot = timeSlot;
+                undoes.add(() -> committee.timeSlot = previous);
+            } else {
+                throw new BadRequestException("An edit needs an evaluator or a committee");
+            }
+        }
+
+        private Committee getCommittee(String id) {
+            if (id == null) {
+                return null;
+            }
+            var committee = committees.get(id);
+            if (committee == null) {
+                throw new BadRequestException("Unknown committee " + id);
+            }
+            return committee;
+        }
+
+        // At the end of the committee assignments if the index is negative
+        private void move(CommitteeAssignment assignment, Committee committee, int index) {
+            if (assignment.committee != null) {
+                assignment.committee.assignments.remove(assignment);
+            }
+            assignment.committee = committee;
+            if (committee != null) {
+                committee.assignments.add(index < 0 ? committee.assignments.size() : index,
+                        assignment);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fr.cirad.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Assigns a person through its first unassigned assignment only, see
+ * {@link AssignmentSymmetryFilter}.
+ */
+public class AssignmentChangeMoveFilter extends AssignmentSymmetryFilter
+        implements SelectionFilter<CommitteeSolution, ChangeMove<CommitteeSolution>> {
+
+    @Override
+    public boolean accept(ScoreDirector<CommitteeSolution> scoreDirector,
+            ChangeMove<CommitteeSolution> move) {
+        return isRepresentative(scoreDirector, (CommitteeAssignment) move.getEntity());
+    }
+}
@@ -0,0 +1,25 @@
+package fr.cirad.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.SwapMove;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+
+/**
+ * Skips the swaps between two assignments of the same person, which leave the solution
+ * unchanged, and the swaps of a duplicate unassigned assignment, see
+ * {@link AssignmentSymmetryFilter}.
+ */
+public class AssignmentSwapMoveFilter extends AssignmentSymmetryFilter
+        implements SelectionFilter<CommitteeSolution, SwapMove<CommitteeSolution>> {
+
+    @Override
+    public boolean accept(ScoreDirector<CommitteeSolution> scoreDirector,
+            SwapMove<CommitteeSolution> move) {
+        var left = (CommitteeAssignment) move.getLeftEntity();
+        var right = (CommitteeAssignment) move.getRightEntity();
+        return !left.assignedPerson.equals(right.assignedPerson)
+                && isRepresentative(scoreDirector, left) && isRepresentative(scoreDirector, right);
+    }
+}
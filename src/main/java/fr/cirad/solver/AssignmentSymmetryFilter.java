@@ -0,0 +1,49 @@
+package fr.cirad.solver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+
+/**
+ * The assignments of a person only differ by their id, so the unassigned ones are
+ * interchangeable: a move on any of them leads to the same solution. Only the unassigned
+ * assignment with the lowest id of each person is used by the moves, the others are duplicates.
+ */
+abstract class AssignmentSymmetryFilter {
+
+    private CommitteeSolution indexedSolution;
+    private Map<Person, List<CommitteeAssignment>> assignmentsByPerson;
+
+    /**
+     * @return False if the assignment is unassigned and the same person has another unassigned
+     *         assignment with a lower id.
+     */
+    boolean isRepresentative(ScoreDirector<CommitteeSolution> scoreDirector,
+            CommitteeAssignment assignment) {
+        if (assignment.committee != null) {
+            return true;
+        }
+        for (var sibling : getAssignments(scoreDirector, assignment.assignedPerson)) {
+            if (sibling.id < assignment.id && sibling.committee == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<CommitteeAssignment> getAssignments(
+            ScoreDirector<CommitteeSolution> scoreDirector, Person person) {
+        var workingSolution = scoreDirector.getWorkingSolution();
+        if (workingSolution != indexedSolution) {
+            // The working solution is set once per solver, the entities never change
+            assignmentsByPerson = workingSolution.committeeAssignments.stream()
+                    .collect(Collectors.groupingBy(a -> a.assignedPerson));
+            indexedSolution = workingSolution;
+        }
+        return assignmentsByPerson.get(person);
+    }
+}
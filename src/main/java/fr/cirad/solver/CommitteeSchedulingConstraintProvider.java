@@ -3,6 +3,7 @@ package fr.cirad.solver;
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.sum;
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.count;
 import static ai.timefold.solver.core.api.score.stream.Joiners.equal;
+import java.util.Set;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
@@ -14,6 +15,41 @@ import fr.cirad.domain.TimeSlot;
 
 public class CommitteeSchedulingConstraintProvider implements ConstraintProvider {
 
+        // Constraint names, by which their weight can be overridden
+        public static final String SELF_CONFLICT = "Self conflict";
+        public static final String DUPLICATED_EVALUATOR =
+                        "A person cannot be assigned multiple times to the same committee";
+        public static final String MAX_PROFESSIONAL_EVALUATORS = "Max number of professional";
+        public static final String MIN_PROFESSIONAL_EVALUATORS = "Min number of professional";
+        public static final String MAX_NON_PROFESSIONAL_EVALUATORS =
+                        "Max number of non professional";
+        public static final String MIN_NON_PROFESSIONAL_EVALUATORS =
+                        "Min number of non professional";
+        public static final String EVALUATORS_AVAILABILITY =
+                        "Not enough available evaluators for the meeting";
+        public static final String EVALUATED_AVAILABLE =
+                        "Evaluated must be available for the meeting";
+        public static final String REQUIRED_SKILLS = "Required skills";
+        public static final String NON_RECIPROCITY = "Non-reciprocity";
+        public static final String INSPECTION_ROTATION = "Inspector rotation not respected";
+        public static final String INSPECTION_FOLLOW_UP = "Inspector follow up not respected";
+        public static final String VETOES = "Veto";
+        public static final String TRAVELLING = "Travelling distance range";
+        public static final String MAX_NUMBER_OF_INSPECTIONS = "Max number of inspections";
+        public static final String COMMITTEES_BY_TIME_SLOT =
+                        "Number of committees for a given timeslot";
+
+        /**
+         * The names of all the constraints, the keys of {@link Settings#constraintWeights}.
+         */
+        public static final Set<String> CONSTRAINT_NAMES = Set.of(SELF_CONFLICT,
+                        DUPLICATED_EVALUATOR, MAX_PROFESSIONAL_EVALUATORS,
+                        MIN_PROFESSIONAL_EVALUATORS, MAX_NON_PROFESSIONAL_EVALUATORS,
+                        MIN_NON_PROFESSIONAL_EVALUATORS, EVALUATORS_AVAILABILITY,
+                        EVALUATED_AVAILABLE, REQUIRED_SKILLS, NON_RECIPROCITY, INSPECTION_ROTATION,
+                        INSPECTION_FOLLOW_UP, VETOES, TRAVELLING, MAX_NUMBER_OF_INSPECTIONS,
+                        COMMITTEES_BY_TIME_SLOT);
+
         @Override
         public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
                 return new Constraint[] {selfConflict(constraintFactory),
@@ -37,63 +73,63 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                 return constraintFactory.forEach(CommitteeAssignment.class).filter(
                                 ca -> ca.assignedPerson.equals(ca.committee.evaluatedPerson))
                                 .penalize(HardMediumSoftScore.ofHard(1_000_000))
-                                .asConstraint("Self conflict");
+                                .asConstraint(SELF_CONFLICT);
         }
 
         private Constraint duplicatedEvaluator(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::duplicatedEvaluator)
                                 .penalize(HardMediumSoftScore.ofHard(1_000_000))
-                                .asConstraint("A person cannot be assigned multiple times to the same committee");
+                                .asConstraint(DUPLICATED_EVALUATOR);
         }
 
         private Constraint maxProfessionalEvaluators(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(c -> !c.hasCorrectNumberOfMaxProfessionalPersons())
                                 .penalize(HardMediumSoftScore.ofHard(1_000))
-                                .asConstraint("Max number of professional");
+                                .asConstraint(MAX_PROFESSIONAL_EVALUATORS);
         }
 
         private Constraint minProfessionalEvaluators(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(c -> !c.hasCorrectNumberOfMinProfessionalPersons())
                                 .penalize(HardMediumSoftScore.ofHard(100))
-                                .asConstraint("Min number of professional");
+                                .asConstraint(MIN_PROFESSIONAL_EVALUATORS);
         }
 
         private Constraint maxNonProfessionalEvaluators(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(c -> !c.hasCorrectNumberOfMaxNonProfessionalPersons())
                                 .penalize(HardMediumSoftScore.ofHard(1_000))
-                                .asConstraint("Max number of non professional");
+                                .asConstraint(MAX_NON_PROFESSIONAL_EVALUATORS);
         }
 
         private Constraint minNonProfessionalEvaluators(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(c -> !c.hasCorrectNumberOfMinNonProfessionalPersons())
                                 .penalize(HardMediumSoftScore.ofHard(100))
-                                .asConstraint("Min number of non professional");
+                                .asConstraint(MIN_NON_PROFESSIONAL_EVALUATORS);
         }
 
         private Constraint evaluatorsAvailability(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::notEnoughAvailableEvaluators)
                                 .penalize(HardMediumSoftScore.ofHard(2))
-                                .asConstraint("Not enough available evaluators for the meeting");
+                                .asConstraint(EVALUATORS_AVAILABILITY);
         }
 
         private Constraint evaluatedAvailable(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::evaluatedNotAvailable)
                                 .penalize(HardMediumSoftScore.ofHard(2))
-                                .asConstraint("Evaluated must be available for the meeting");
+                                .asConstraint(EVALUATED_AVAILABLE);
         }
 
         private Constraint requiredSkills(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::requiredSkillsNotSatisfied)
                                 .penalize(HardMediumSoftScore.ofHard(2))
-                                .asConstraint("Required skills");
+                                .asConstraint(REQUIRED_SKILLS);
         }
 
         private Constraint nonReciprocity(ConstraintFactory constraintFactory) {
@@ -102,27 +138,27 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                                 equal(ca -> ca.committee.evaluatedPerson, ca -> ca.assignedPerson),
                                 equal(ca -> ca.assignedPerson, ca -> ca.committee.evaluatedPerson))
                                 .penalize(HardMediumSoftScore.ofHard(100))
-                                .asConstraint("Non-reciprocity");
+                                .asConstraint(NON_RECIPROCITY);
         }
 
         private Constraint inspectionRotation(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::inspectionRotationBroken)
                                 .penalize(HardMediumSoftScore.ONE_HARD)
-                                .asConstraint("Inspector rotation not respected");
+                                .asConstraint(INSPECTION_ROTATION);
         }
 
         private Constraint inspectionFollowUp(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEachIncludingNullVars(Committee.class)
                                 .filter(Committee::inspectionFollowUpNotRespected)
                                 .penalize(HardMediumSoftScore.ONE_HARD)
-                                .asConstraint("Inspector follow up not respected");
+                                .asConstraint(INSPECTION_FOLLOW_UP);
         }
 
         private Constraint vetoes(ConstraintFactory constraintFactory) {
                 return constraintFactory.forEach(CommitteeAssignment.class).filter(
                                 ca -> ca.assignedPerson.isVetoed(ca.committee.evaluatedPerson))
-                                .penalize(HardMediumSoftScore.ONE_HARD).asConstraint("Veto");
+                                .penalize(HardMediumSoftScore.ONE_HARD).asConstraint(VETOES);
         }
 
         private Constraint travelling(ConstraintFactory constraintFactory) {
@@ -132,7 +168,7 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                                 .filter((person, distance) -> person
                                                 .isNotTravellingInRange(distance))
                                 .penalize(HardMediumSoftScore.ONE_HARD)
-                                .asConstraint("Travelling distance range");
+                                .asConstraint(TRAVELLING);
         }
 
         private Constraint maxNumberOfInspections(ConstraintFactory constraintFactory) {
@@ -142,7 +178,7 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                                 .groupBy(ca -> ca.assignedPerson, count())
                                 .filter((person, nb) -> person.maxNumberOfInspections > nb)
                                 .penalize(HardMediumSoftScore.ONE_HARD)
-                                .asConstraint("Max number of inspections");
+                                .asConstraint(MAX_NUMBER_OF_INSPECTIONS);
         }
 
         private Constraint badCommitteeNumberByTimeSlotRange(ConstraintFactory constraintFactory) {
@@ -151,7 +187,7 @@ public class CommitteeSchedulingConstraintProvider implements ConstraintProvider
                                 .groupBy(t -> t, count())
                                 .filter((t, nb) -> !t.isNumberOfCommitteesInRange(nb))
                                 .penalize(HardMediumSoftScore.ONE_HARD)
-                                .asConstraint("Number of committees for a given timeslot");
+                                .asConstraint(COMMITTEES_BY_TIME_SLOT);
         }
 
 }
@@ -0,0 +1,545 @@
+package fr.cirad.solver;
+
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.COMMITTEES_BY_TIME_SLOT;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.EVALUATED_AVAILABLE;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.EVALUATORS_AVAILABILITY;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.INSPECTION_FOLLOW_UP;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MAX_NON_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MAX_NUMBER_OF_INSPECTIONS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MAX_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_NON_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.NON_RECIPROCITY;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.REQUIRED_SKILLS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.TRAVELLING;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Branch and bound over the committees of a solution, looking for evaluators and a time slot for
+ * each committee without any constraint penalty.
+ * <p>
+ * Committees are decided one at a time, the ones with the fewest possible evaluators first. For
+ * each committee, the evaluators are picked among the persons who can join it (self conflict,
+ * vetoes, rotation and single trips over the travelling range are already excluded by the
+ * possible committees, as long as these constraints stay hard), and the branches
+ * breaking a constraint are pruned as soon as the constraint is decided: evaluator counts per
+ * type, follow-up inspectors, required skills, availability, non-reciprocity, assignments per
+ * person, maximum travelling distance and committees per time slot. The remaining constraints,
+ * minimum travelling distance and number of inspections, are checked on complete assignments.
+ * Constraints whose weight is overridden to zero are ignored.
+ * <p>
+ * The first levels of the search are split into fork/join tasks. The search stops at the first
+ * solution or at the deadline.
+ */
+final class ExactSearch {
+
+    enum Outcome {
+        FOUND, EXHAUSTED, ABORTED
+    }
+
+    private static final int NONE = -1;
+
+    private final CommitteeSolution problem;
+    private final Committee[] committees;
+    private final Person[] persons;
+    private final TimeSlot[] timeSlots;
+    // Number of assignments of each person, the most committees they can join
+    private final int[] capacities;
+    private final boolean[] professionals;
+    private final boolean[] nonProfessionals;
+    // Index of the person evaluated by each committee, NONE if not an evaluator
+    private final int[] evaluatedPersons;
+    // Index of the committee evaluating each person, NONE if not evaluated
+    private final int[] evaluatingCommittees;
+    // For each committee, the persons who can join it, their distance to the evaluated person and
+    // whether they inspected the evaluated person last time
+    private final int[][] candidates;
+    private final int[][] distances;
+    private final boolean[][] followUps;
+    // Candidates of each type or following up, from each candidate to the last one
+    private final int[][] remainingProfessionals;
+    private final int[][] remainingNonProfessionals;
+    private final int[][] remainingFollowUps;
+    // Time slots of each committee, NONE for no time slot
+    private final int[][] slotDomains;
+    private final boolean[][] availabilities;
+
+    private final int minProfessionals;
+    private final int maxProfessionals;
+    private final int minNonProfessionals;
+    private final int maxNonProfessionals;
+    // Exact number of follow-up inspectors, NONE if not constrained
+    private final int followUpCount;
+    private final boolean checkSkills;
+    private final boolean checkEvaluatorsAvailability;
+    private final boolean checkReciprocity;
+    private final boolean checkTravelling;
+    private final boolean checkInspections;
+    private final Range meetingSize;
+
+    private final long deadline;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicLong exploredNodes = new AtomicLong();
+    private final AtomicReference<State> solution = new AtomicReference<>();
+
+    ExactSearch(CommitteeSolution problem, long deadline) {
+        this.problem = problem;
+        this.deadline = deadline;
+        var settings = problem.settings;
+
+        // Persons with assignments, and the assignments count of each
+        Map<Person, Integer> personIndexes = new HashMap<>();
+        List<Person> personList = new ArrayList<>();
+        List<Integer> capacityList = new ArrayList<>();
+        Map<Person, int[]> possibleCommittees = new HashMap<>();
+        for (var assignment : problem.committeeAssignments) {
+            var index = personIndexes.get(assignment.assignedPerson);
+            if (index == null) {
+                personIndexes.put(assignment.assignedPerson, personList.size());
+                personList.add(assignment.assignedPerson);
+                capacityList.add(1);
+                possibleCommittees.put(assignment.assignedPerson,
+                        assignment.possibleCommitteeIndexes);
+            } else {
+                capacityList.set(index, capacityList.get(index) + 1);
+            }
+        }
+        persons = personList.toArray(new Person[0]);
+        capacities = capacityList.stream().mapToInt(Integer::intValue).toArray();
+        professionals = new boolean[persons.length];
+        nonProfessionals = new boolean[persons.length];
+        for (int p = 0; p < persons.length; p++) {
+            professionals[p] = PersonType.PROFESSIONAL.equals(persons[p].personType);
+            nonProfessionals[p] = PersonType.NON_PROFESSIONAL.equals(persons[p].personType);
+        }
+
+        // Candidates of each committee, in the order of the solution committees
+        int committeeCount = problem.committees.size();
+        List<List<Integer>> candidateLists = new ArrayList<>();
+        for (int c = 0; c < committeeCount; c++) {
+            candidateLists.add(new ArrayList<>());
+        }
+        for (int p = 0; p < persons.length; p++) {
+            for (int c : possibleCommittees.get(persons[p])) {
+                candidateLists.get(c).add(p);
+            }
+        }
+        // The most constrained committees first
+        var order = IntStream.range(0, committeeCount).boxed()
+                .sorted(Comparator.comparingInt(c -> candidateLists.get(c).size()))
+                .mapToInt(Integer::intValue).toArray();
+        committees = Arrays.stream(order).mapToObj(problem.committees::get)
+                .toArray(Committee[]::new);
+
+        timeSlots = problem.timeSlots.toArray(new TimeSlot[0]);
+        availabilities = new boolean[persons.length][timeSlots.length];
+        for (int p = 0; p < persons.length; p++) {
+            for (int t = 0; t < timeSlots.length; t++) {
+                availabilities[p][t] = persons[p].isAvailable(timeSlots[t]);
+            }
+        }
+
+        boolean useAvailability = !Boolean.FALSE.equals(settings.useAvailability);
+        boolean checkEvaluatedAvailability = useAvailability && isEnabled(EVALUATED_AVAILABLE);
+        checkEvaluatorsAvailability = useAvailability && isEnabled(EVALUATORS_AVAILABILITY);
+        checkSkills = isEnabled(REQUIRED_SKILLS);
+        checkReciprocity = isEnabled(NON_RECIPROCITY);
+        checkTravelling = isEnabled(TRAVELLING);
+        checkInspections = isEnabled(MAX_NUMBER_OF_INSPECTIONS);
+        meetingSize = isEnabled(COMMITTEES_BY_TIME_SLOT) ? settings.committeeMeetingSize : null;
+        minProfessionals = isEnabled(MIN_PROFESSIONAL_EVALUATORS)
+                ? settings.nbProParticipants.getMin()
+                : 0;
+        maxProfessionals = isEnabled(MAX_PROFESSIONAL_EVALUATORS)
+                ? settings.nbProParticipants.getMax()
+                : Integer.MAX_VALUE;
+        minNonProfessionals = isEnabled(MIN_NON_PROFESSIONAL_EVALUATORS)
+                ? settings.nbNonProParticipants.getMin()
+                : 0;
+        maxNonProfessionals = isEnabled(MAX_NON_PROFESSIONAL_EVALUATORS)
+                ? settings.nbNonProParticipants.getMax()
+                : Integer.MAX_VALUE;
+        followUpCount =
+                isEnabled(INSPECTION_FOLLOW_UP) ? settings.nbInspectorsFollowingUp : NONE;
+
+        evaluatedPersons = new int[committeeCount];
+        evaluatingCommittees = new int[persons.length];
+        Arrays.fill(evaluatingCommittees, NONE);
+        candidates = new int[committeeCount][];
+        distances = new int[committeeCount][];
+        followUps = new boolean[committeeCount][];
+        remainingProfessionals = new int[committeeCount][];
+        remainingNonProfessionals = new int[committeeCount][];
+        remainingFollowUps = new int[committeeCount][];
+        slotDomains = new int[committeeCount][];
+        var distanceMatrix = problem.committeeAssignments.isEmpty() ? null
+                : problem.committeeAssignments.get(0).distanceMatrix;
+        for (int c = 0; c < committeeCount; c++) {
+            var committee = committees[c];
+            var evaluated = committee.evaluatedPerson;
+            evaluatedPersons[c] = personIndexes.getOrDefault(evaluated, NONE);
+            if (evaluatedPersons[c] != NONE) {
+                evaluatingCommittees[evaluatedPersons[c]] = c;
+            }
+            candidates[c] = candidateLists.get(order[c]).stream().mapToInt(Integer::intValue)
+                    .toArray();
+            int size = candidates[c].length;
+            distances[c] = new int[size];
+            followUps[c] = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                var person = persons[candidates[c][i]];
+                distances[c][i] = distanceMatrix == null ? 0
+                        : distanceMatrix.getDistance(person.location, evaluated.location);
+                followUps[c][i] = person.hasAlreadyInspectedLastTime(evaluated);
+            }
+            remainingProfessionals[c] = new int[size + 1];
+            remainingNonProfessionals[c] = new int[size + 1];
+            remainingFollowUps[c] = new int[size + 1];
+            for (int i = size - 1; i >= 0; i--) {
+                int p = candidates[c][i];
+                remainingProfessionals[c][i] =
+                        remainingProfessionals[c][i + 1] + (professionals[p] ? 1 : 0);
+                remainingNonProfessionals[c][i] =
+                        remainingNonProfessionals[c][i + 1] + (nonProfessionals[p] ? 1 : 0);
+                remainingFollowUps[c][i] =
+                        remainingFollowUps[c][i + 1] + (followUps[c][i] ? 1 : 0);
+            }
+            // Without time slot, the committee breaks the availability constraints
+            var slots = IntStream.range(0, timeSlots.length).filter(
+                    t -> !checkEvaluatedAvailability || evaluated.isAvailable(timeSlots[t]));
+            if (!checkEvaluatedAvailability && !checkEvaluatorsAvailability) {
+                slots = IntStream.concat(slots, IntStream.of(NONE));
+            }
+            slotDomains[c] = slots.toArray();
+        }
+    }
+
+    // The weights are either hard or zero, as checked by the exact solver
+    private boolean isEnabled(String constraintName) {
+        return problem.isHard(constraintName);
+    }
+
+    RecursiveTask<Outcome> rootTask() {
+        return new Task(new State(), 0, true);
+    }
+
+    long getExploredNodes() {
+        return exploredNodes.get();
+    }
+
+    /**
+     * Sets the planning variables of the problem to the solution found.
+     *
+     * @return False if no solution was found.
+     */
+    boolean applySolution() {
+        var found = solution.get();
+        if (found == null) {
+            return false;
+        }
+        Map<Person, List<CommitteeAssignment>> freeAssignments = new HashMap<>();
+        for (var assignment : problem.committeeAssignments) {
+            assignment.committee = null;
+            freeAssignments.computeIfAbsent(assignment.assignedPerson, p -> new ArrayList<>())
+                    .add(assignment);
+        }
+        for (int c = 0; c < committees.length; c++) {
+            var committee = committees[c];
+            committee.timeSlot = found.slots[c] == NONE ? null : timeSlots[found.slots[c]];
+            committee.assignments.clear();
+            for (int e = 0; e < found.sizes[c]; e++) {
+                var assignment = freeAssignments.get(persons[found.evaluators[c][e]]).remove(0);
+                assignment.committee = committee;
+                committee.assignments.add(assignment);
+            }
+        }
+        return true;
+    }
+
+    private final class Task extends RecursiveTask<Outcome> {
+
+        private final State state;
+        private final int depth;
+        private final boolean split;
+
+        Task(State state, int depth, boolean split) {
+            this.state = state;
+            this.depth = depth;
+            this.split = split;
+        }
+
+        @Override
+        protected Outcome compute() {
+            // Also checked here, the split levels deciding no node
+            if (System.nanoTime() > deadline) {
+                stopped.set(true);
+            }
+            if (stopped.get()) {
+                return Outcome.ABORTED;
+            }
+            if (!split || depth == committees.length) {
+                return decide(state, depth);
+            }
+            List<State> children = new ArrayList<>();
+            if (pick(state, depth, 0, 0, 0, 0, children) == Outcome.ABORTED) {
+                return Outcome.ABORTED;
+            }
+            // Splits the next level too while there are few tasks for the pool
+            boolean splitChildren = children.size() < 4 * getPool().getParallelism();
+            var tasks = children.stream().map(child -> new Task(child, depth + 1, splitChildren))
+                    .toList();
+            invokeAll(tasks);
+            var outcome = Outcome.EXHAUSTED;
+            for (var task : tasks) {
+                var taskOutcome = task.join();
+                if (taskOutcome == Outcome.FOUND) {
+                    return Outcome.FOUND;
+                }
+                if (taskOutcome == Outcome.ABORTED) {
+                    outcome = Outcome.ABORTED;
+                }
+            }
+            return outcome;
+        }
+    }
+
+    private Outcome decide(State state, int c) {
+        if ((exploredNodes.incrementAndGet() & 0x3FF) == 0 && System.nanoTime() > deadline) {
+            stopped.set(true);
+        }
+        if (stopped.get()) {
+            return Outcome.ABORTED;
+        }
+        if (c == committees.length) {
+            return isComplete(state) ? found(state) : Outcome.EXHAUSTED;
+        }
+        return pick(state, c, 0, 0, 0, 0, null);
+    }
+
+    /**
+     * Picks the evaluators of a committee from its i-th candidate, then its time slot. The
+     * committees states are collected in children when given, decided right away otherwise.
+     */
+    private Outcome pick(State state, int c, int i, int pros, int nonPros, int follow,
+            List<State> children) {
+        if (i == candidates[c].length) {
+            return schedule(state, c, pros, nonPros, follow, children);
+        }
+        if (pros + remainingProfessionals[c][i] < minProfessionals
+                || nonPros + remainingNonProfessionals[c][i] < minNonProfessionals
+                || (followUpCount != NONE && follow + remainingFollowUps[c][i] < followUpCount)) {
+            return Outcome.EXHAUSTED;
+        }
+        int p = candidates[c][i];
+        if (canJoin(state, c, i, pros, nonPros, follow)) {
+            state.add(c, p, distances[c][i]);
+            var outcome = pick(state, c, i + 1, pros + (professionals[p] ? 1 : 0),
+                    nonPros + (nonProfessionals[p] ? 1 : 0), follow + (followUps[c][i] ? 1 : 0),
+                    children);
+            state.remove(c, p, distances[c][i]);
+            if (outcome != Outcome.EXHAUSTED) {
+                return outcome;
+            }
+        }
+        return pick(state, c, i + 1, pros, nonPros, follow, children);
+    }
+
+    private boolean canJoin(State state, int c, int i, int pros, int nonPros, int follow) {
+        int p = candidates[c][i];
+        if (state.loads[p] >= capacities[p]
+                || (professionals[p] && pros >= maxProfessionals)
+                || (nonProfessionals[p] && nonPros >= maxNonProfessionals)
+                || (followUpCount != NONE && followUps[c][i] && follow >= followUpCount)) {
+            return false;
+        }
+        if (checkTravelling && state.travels[p] + distances[c][i] > persons[p]
+                .travellingDistanceRangeConstraint.getMax()) {
+            return false;
+        }
+        // The evaluated person must not evaluate this candidate
+        int evaluated = evaluatedPersons[c];
+        int candidateCommittee = evaluatingCommittees[p];
+        return !checkReciprocity || evaluated == NONE || candidateCommittee == NONE
+                || !state.members[candidateCommittee][evaluated];
+    }
+
+    private Outcome schedule(State state, int c, int pros, int nonPros, int follow,
+            List<State> children) {
+        if (pros < minProfessionals || nonPros < minNonProfessionals
+                || (followUpCount != NONE && follow != followUpCount) || !hasSkills(state, c)) {
+            return Outcome.EXHAUSTED;
+        }
+        for (int slot : slotDomains[c]) {
+            if (checkEvaluatorsAvailability && availableEvaluators(state, c, slot) < 2) {
+                continue;
+            }
+            if (meetingSize != null && slot != NONE
+                    && state.meetings[slot] + 1 > meetingSize.getMax()) {
+                continue;
+            }
+            state.schedule(c, slot);
+            Outcome outcome;
+            if (children != null) {
+                children.add(state.copy());
+                outcome = Outcome.EXHAUSTED;
+            } else {
+                outcome = decide(state, c + 1);
+            }
+            state.unschedule(c, slot);
+            if (outcome != Outcome.EXHAUSTED) {
+                return outcome;
+            }
+        }
+        return Outcome.EXHAUSTED;
+    }
+
+    private boolean hasSkills(State state, int c) {
+        if (!checkSkills) {
+            return true;
+        }
+        for (var skill : committees[c].evaluatedPerson.requiredSkills) {
+            boolean covered = false;
+            for (int e = 0; e < state.sizes[c] && !covered; e++) {
+                covered = persons[state.evaluators[c][e]].hasSkill(skill);
+            }
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int availableEvaluators(State state, int c, int slot) {
+        if (slot == NONE) {
+            return 0;
+        }
+        int available = 0;
+        for (int e = 0; e < state.sizes[c]; e++) {
+            if (availabilities[state.evaluators[c][e]][slot]) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    // The constraints only decided once every committee is
+    private boolean isComplete(State state) {
+        for (int p = 0; p < persons.length; p++) {
+            if (state.loads[p] == 0) {
+                continue;
+            }
+            if (checkTravelling && persons[p].isNotTravellingInRange(state.travels[p])) {
+                return false;
+            }
+            if (checkInspections && persons[p].maxNumberOfInspections != null
+                    && persons[p].maxNumberOfInspections > state.loads[p]) {
+                return false;
+            }
+        }
+        if (meetingSize != null) {
+            for (int meetings : state.meetings) {
+                if (meetings > 0 && !meetingSize.contains(meetings)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Outcome found(State state) {
+        if (solution.compareAndSet(null, state.copy())) {
+            stopped.set(true);
+        }
+        return Outcome.FOUND;
+    }
+
+    /**
+     * Evaluators and time slot of the committees decided so far, updated in place while
+     * backtracking and copied for the fork/join tasks.
+     */
+    private final class State {
+
+        final int[] slots;
+        final int[][] evaluators;
+        final int[] sizes;
+        final boolean[][] members;
+        final int[] loads;
+        final int[] travels;
+        final int[] meetings;
+
+        State() {
+            slots = new int[committees.length];
+            evaluators = new int[committees.length][];
+            for (int c = 0; c < committees.length; c++) {
+                evaluators[c] = new int[candidates[c].length];
+            }
+            sizes = new int[committees.length];
+            members = new boolean[committees.length][persons.length];
+            loads = new int[persons.length];
+            travels = new int[persons.length];
+            meetings = new int[timeSlots.length];
+        }
+
+        private State(State other) {
+            slots = other.slots.clone();
+            evaluators = new int[other.evaluators.length][];
+            members = new boolean[other.members.length][];
+            for (int c = 0; c < committees.length; c++) {
+                evaluators[c] = other.evaluators[c].clone();
+                members[c] = other.members[c].clone();
+            }
+            sizes = other.sizes.clone();
+            loads = other.loads.clone();
+            travels = other.travels.clone();
+            meetings = other.meetings.clone();
+        }
+
+        State copy() {
+            return new State(this);
+        }
+
+        void add(int c, int p, int distance) {
+            evaluators[c][sizes[c]++] = p;
+            members[c][p] = true;
+            loads[p]++;
+            travels[p] += distance;
+        }
+
+        void remove(int c, int p, int distance) {
+            sizes[c]--;
+            members[c][p] = false;
+            loads[p]--;
+            travels[p] -= distance;
+        }
+
+        void schedule(int c, int slot) {
+            slots[c] = slot;
+            if (slot != NONE) {
+                meetings[slot]++;
+            }
+        }
+
+        void unschedule(int c, int slot) {
+            if (slot != NONE) {
+                meetings[slot]--;
+            }
+        }
+    }
+}
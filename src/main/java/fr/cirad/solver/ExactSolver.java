@@ -0,0 +1,117 @@
+package fr.cirad.solver;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import ai.timefold.solver.core.api.score.ScoreManager;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.ExactResult;
+import fr.cirad.domain.ExactResult.Status;
+import fr.cirad.domain.FeasibilityAnalyzer;
+
+/**
+ * Solves small problems exactly, proving either that a solution is optimal or that the problem
+ * is infeasible, where local search only gives its best solution found. Problems with
+ * {@link FeasibilityAnalyzer} issues are infeasible without searching, see {@link ExactSearch}
+ * for the search itself.
+ */
+@ApplicationScoped
+public class ExactSolver {
+
+    @ConfigProperty(name = "dicoop.exact.max-participants", defaultValue = "40")
+    int maxParticipants;
+
+    @ConfigProperty(name = "dicoop.exact.time-limit", defaultValue = "60s")
+    Duration timeLimit;
+
+    @Inject
+    ScoreManager<CommitteeSolution, HardMediumSoftScore> scoreManager;
+
+    @Inject
+    Logger log;
+
+    private final ForkJoinPool pool = new ForkJoinPool();
+
+    @PreDestroy
+    void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The exact search being exponential, larger problems are rejected.
+     */
+    public int getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    /**
+     * Searches a solution without any penalty, setting the planning variables of the solution
+     * when one is found.
+     *
+     * @param solution The problem, as built from the solver options.
+     * @param spentLimitSeconds The time limit, or null for the configured one.
+     * @throws IllegalArgumentException if a constraint weight is not only hard.
+     */
+    public ExactResult solve(CommitteeSolution solution, Long spentLimitSeconds) {
+        checkWeights(solution);
+        long start = System.nanoTime();
+        var limit = spentLimitSeconds == null ? timeLimit : Duration.ofSeconds(spentLimitSeconds);
+        var result = new ExactResult();
+        result.id = solution.id;
+
+        if (!solution.feasibilityIssues.isEmpty()) {
+            result.status = Status.INFEASIBLE;
+            result.certificate.addAll(solution.feasibilityIssues);
+        } else {
+            var search = new ExactSearch(solution, start + limit.toNanos());
+            var outcome = pool.invoke(search.rootTask());
+            result.exploredNodes = search.getExploredNodes();
+            if (search.applySolution()) {
+                var score = scoreManager.updateScore(solution);
+                result.score = score.toString();
+                if (score.equals(HardMediumSoftScore.ZERO)) {
+                    result.status = Status.OPTIMAL;
+                } else {
+                    // The search and the constraints disagree, the search cannot be trusted
+                    log.warnf("Exact solution of %s scored %s", solution.id, score);
+                    result.status = Status.UNKNOWN;
+                    result.certificate.add("The solution found is penalized: " + score);
+                }
+            } else if (outcome == ExactSearch.Outcome.EXHAUSTED) {
+                result.status = Status.INFEASIBLE;
+                result.certificate.add("No assignment of the " + solution.committees.size()
+                        + " committees satisfies every constraint, after an exhaustive search of "
+                        + result.exploredNodes + " nodes");
+            } else {
+                result.status = Status.UNKNOWN;
+                result.certificate.add("Time limit of " + limit.toSeconds()
+                        + " seconds reached after " + result.exploredNodes + " nodes");
+            }
+        }
+        result.timeMillis = (System.nanoTime() - start) / 1_000_000;
+        log.infof("Exact solve of %s: %s in %d ms", solution.id, result.status,
+                result.timeMillis);
+        return result;
+    }
+
+    // The search prunes every penalty, so an infeasible result would be wrong for the constraints
+    // only weighted on the medium or soft levels
+    private static void checkWeights(CommitteeSolution solution) {
+        var weights = solution.settings.constraintWeights;
+        if (weights == null) {
+            return;
+        }
+        for (var name : weights.keySet()) {
+            var weight = solution.constraintWeightOverrides.getConstraintWeight(name);
+            if (weight.mediumScore() != 0 || weight.softScore() != 0) {
+                throw new IllegalArgumentException("The exact solver only accepts hard or zero"
+                        + " weights, not " + weight + " for the constraint (" + name + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.CommitteeSolutionCloner;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Races the solvers of {@link SolverOptions#portfolio} on the same problem, each on its own
+ * thread, and keeps the best solution found by any of them under the job id.
+ * <p>
+ * A member is terminated early once its best score is worse than the best of the portfolio and
+ * has not improved for {@code dicoop.solver.portfolio.patience}. Once a member finds a solution
+ * without any penalty, which no solution can beat, the portfolio is terminated. The time budget
+ * of the solver options applies to every member, and the portfolio terminates with its last
+ * member. A portfolio has at most {@code dicoop.solver.portfolio.max-members} members, each of
+ * them counted against the solver budget of the admission control.
+ */
+@ApplicationScoped
+public class PortfolioSolver {
+
+    private static final CommitteeSolutionCloner CLONER = new CommitteeSolutionCloner();
+
+    @Inject
+    SolverProfiles solverProfiles;
+
+    @Inject
+    SolverProfilesConfig config;
+
+    @Inject
+    Logger log;
+
+    /**
+     * Starts the members of the portfolio.
+     *
+     * @param problem The problem, cloned for each member.
+     * @param options The solver options, with the portfolio members.
+     * @param bestSolutionConsumer Called with each new best solution of the portfolio.
+     * @param terminationListener Called with the job id once every member has terminated.
+     */
+    public Portfolio start(CommitteeSolution problem, SolverOptions options,
+            Consumer<CommitteeSolution> bestSolutionConsumer, Consumer<UUID> terminationListener) {
+        var configOverride = solverProfiles.getConfigOverride(options);
+        var portfolio = new Portfolio(problem.id, bestSolutionConsumer, terminationListener);
+        for (int i = 0; i < options.portfolio.size(); i++) {
+            var member = options.portfolio.get(i);
+            long seed = member.randomSeed != null ? member.randomSeed : i;
+            var solverConfig = solverProfiles.getSolverConfig(options, member, seed);
+            Solver<CommitteeSolution> solver = SolverFactory.<CommitteeSolution>create(solverConfig)
+                    .buildSolver(configOverride);
+            // Solvers set the score of their problem
+            var memberProblem = CLONER.cloneSolution(problem);
+            if (Boolean.TRUE.equals(member.shuffleParticipants)) {
+                Collections.shuffle(memberProblem.committeeAssignments, new Random(seed));
+            }
+            var name = "#" + i + " (" + (member.algorithm != null ? member.algorithm : "default")
+                    + ", seed " + seed + ")";
+            portfolio.members.add(portfolio.new Member(name, solver, memberProblem));
+        }
+        portfolio.start();
+        return portfolio;
+    }
+
+    /**
+     * The members of a portfolio job.
+     */
+    public final class Portfolio {
+
+        private final UUID id;
+        private final Consumer<CommitteeSolution> bestSolutionConsumer;
+        private final Consumer<UUID> terminationListener;
+        final List<Member> members = new ArrayList<>();
+        private ScheduledExecutorService executor;
+        private CommitteeSolution bestSolution;
+        private int running;
+        // Once terminated early or optimal, also for the members not solving yet
+        private boolean stopped;
+
+        Portfolio(UUID id, Consumer<CommitteeSolution> bestSolutionConsumer,
+                Consumer<UUID> terminationListener) {
+            this.id = id;
+            this.bestSolutionConsumer = bestSolutionConsumer;
+            this.terminationListener = terminationListener;
+        }
+
+        public synchronized SolverStatus getSolverStatus() {
+            return running > 0 ? SolverStatus.SOLVING_ACTIVE : SolverStatus.NOT_SOLVING;
+        }
+
+        public synchronized void terminateEarly() {
+            stopped = true;
+            members.forEach(member -> member.solver.terminateEarly());
+        }
+
+        synchronized void start() {
+            running = members.size();
+            // One thread per member, and one checking the dominated members
+            executor = Executors.newScheduledThreadPool(members.size() + 1);
+            long now = System.nanoTime();
+            for (var member : members) {
+                member.lastImprovement = now;
+                member.solver.addEventListener(
+                        event -> improved(member, event.getNewBestSolution()));
+                executor.execute(() -> solve(member));
+            }
+            long period = Math.max(1, config.portfolio().patience().toMillis() / 4);
+            executor.scheduleWithFixedDelay(this::terminateDominated, period, period,
+                    TimeUnit.MILLISECONDS);
+            log.infof("Started a portfolio of %d solvers for %s", members.size(), id);
+        }
+
+        private void solve(Member member) {
+            try {
+                synchronized (this) {
+                    if (stopped) {
+                        return;
+                    }
+                }
+                improved(member, member.solver.solve(member.problem));
+            } catch (RuntimeException e) {
+                log.errorf(e, "Portfolio member %s of %s failed", member.name, id);
+            } finally {
+                terminated(member);
+            }
+        }
+
+        synchronized void improved(Member member, CommitteeSolution solution) {
+            var score = solution.score;
+            if (score == null) {
+                return;
+            }
+            if (member.bestScore == null || score.compareTo(member.bestScore) > 0) {
+                member.bestScore = score;
+                member.lastImprovement = System.nanoTime();
+            }
+            if (bestSolution == null || score.compareTo(bestSolution.score) > 0) {
+                bestSolution = solution;
+                bestSolutionConsumer.accept(solution);
+                if (score.equals(HardMediumSoftScore.ZERO)) {
+                    terminateEarly();
+                }
+            }
+        }
+
+        synchronized void terminateDominated() {
+            if (stopped) {
+                // Again for the members whose solve had not started yet, as it resets the early
+                // termination of the solver
+                members.stream().filter(member -> member.solving)
+                        .forEach(member -> member.solver.terminateEarly());
+                return;
+            }
+            long now = System.nanoTime();
+            long patience = config.portfolio().patience().toNanos();
+            for (var member : members) {
+                if (member.solving && member.bestScore != null
+                        && member.bestScore.compareTo(bestSolution.score) < 0
+                        && now - member.lastImprovement > patience) {
+                    log.infof("Terminating the portfolio member %s of %s, stuck at %s behind %s",
+                            member.name, id, member.bestScore, bestSolution.score);
+                    member.solving = false;
+                    member.solver.terminateEarly();
+                }
+            }
+        }
+
+        private void terminated(Member member) {
+            boolean last;
+            synchronized (this) {
+                member.solving = false;
+                last = --running == 0;
+            }
+            if (last) {
+                // Also cancels the dominance check
+                executor.shutdown();
+                log.infof("Portfolio of %s terminated with %s", id,
+                        bestSolution == null ? null : bestSolution.score);
+                terminationListener.accept(id);
+            }
+        }
+
+        final class Member {
+
+            final String name;
+            final Solver<CommitteeSolution> solver;
+            final CommitteeSolution problem;
+            HardMediumSoftScore bestScore;
+            long lastImprovement;
+            boolean solving = true;
+
+            Member(String name, Solver<CommitteeSolution> solver, CommitteeSolution problem) {
+                this.name = name;
+                this.solver = solver;
+                this.problem = problem;
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package fr.cirad.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.api.solver.phase.PhaseCommand;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.TimeSlot;
+
+/**
+ * Large neighborhood move for the end of a solve, when the remaining violations are clustered in
+ * a few committees that single changes and swaps cannot repair.
+ * <p>
+ * The committees breaking the most constraints are ruined: their evaluators are unassigned, with
+ * the other assignments of these evaluators, and the committees sharing their time slot are
+ * unscheduled. The time slots are then rescheduled and the committees refilled greedily, each
+ * free assignment going where it repairs the most: missing evaluators of a type, uncovered
+ * skills, available evaluators, follow-up inspectors.
+ * <p>
+ * Configured as a custom phase between two local search phases of solverConfig.xml, which
+ * {@link SolverProfiles} repeats for {@code dicoop.solver.ruin-and-recreate.rounds}, each local
+ * search before a ruin ending once it stops improving. The best solution is kept by the solver if
+ * the phase makes the score worse, the next local search then starts from the recreated solution.
+ */
+public class RuinAndRecreatePhase implements PhaseCommand<CommitteeSolution> {
+
+    private static final String COMMITTEE = "committee";
+    private static final String TIME_SLOT = "timeSlot";
+
+    // Custom properties of the phase, the seed being set for each round by SolverProfiles
+    private int committeeCount = 3;
+    private long randomSeed = 0;
+
+    public void setCommitteeCount(int committeeCount) {
+        this.committeeCount = committeeCount;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<CommitteeSolution> scoreDirector,
+            BooleanSupplier isPhaseTerminated) {
+        new Run(scoreDirector).ruinAndRecreate(isPhaseTerminated);
+    }
+
+    private final class Run {
+
+        private final ScoreDirector<CommitteeSolution> scoreDirector;
+        private final CommitteeSolution solution;
+        private final Random random = new Random(randomSeed);
+        private final Map<Person, Committee> committeesByEvaluated = new HashMap<>();
+        private final Map<Committee, Integer> committeeIndexes = new HashMap<>();
+        private final Map<Person, Integer> distances = new HashMap<>();
+        private final Map<TimeSlot, Integer> meetings = new HashMap<>();
+
+        Run(ScoreDirector<CommitteeSolution> scoreDirector) {
+            this.scoreDirector = scoreDirector;
+            this.solution = scoreDirector.getWorkingSolution();
+            for (int i = 0; i < solution.committees.size(); i++) {
+                var committee = solution.committees.get(i);
+                committeesByEvaluated.put(committee.evaluatedPerson, committee);
+                committeeIndexes.put(committee, i);
+                if (committee.timeSlot != null) {
+                    meetings.merge(committee.timeSlot, 1, Integer::sum);
+                }
+            }
+            for (var assignment : solution.committeeAssignments) {
+                if (assignment.committee != null) {
+                    distances.merge(assignment.assignedPerson, assignment.getDistance(),
+                            Integer::sum);
+                }
+            }
+        }
+
+        void ruinAndRecreate(BooleanSupplier isPhaseTerminated) {
+            var worst = getWorstCommittees();
+            if (worst.isEmpty()) {
+                return;
+            }
+
+            // Ruin
+            Set<Person> evaluators = new HashSet<>();
+            worst.forEach(c -> c.assignments.forEach(a -> evaluators.add(a.assignedPerson)));
+            Set<Committee> toFill = new LinkedHashSet<>(worst);
+            for (var assignment : solution.committeeAssignments) {
+                if (assignment.committee != null && (worst.contains(assignment.committee)
+                        || evaluators.contains(assignment.assignedPerson))) {
+                    toFill.add(assignment.committee);
+                    assign(assignment, null);
+                }
+            }
+            Set<TimeSlot> timeSlots = new HashSet<>();
+            worst.forEach(c -> timeSlots.add(c.timeSlot));
+            List<Committee> toSchedule = new ArrayList<>();
+            for (var committee : solution.committees) {
+                if (worst.contains(committee)
+                        || (committee.timeSlot != null && timeSlots.contains(committee.timeSlot))) {
+                    toSchedule.add(committee);
+                    schedule(committee, null);
+                }
+            }
+
+            // Recreate
+            Collections.shuffle(toSchedule, random);
+            for (var committee : toSchedule) {
+                schedule(committee, getBestTimeSlot(committee));
+            }
+            List<CommitteeAssignment> free = new ArrayList<>();
+            for (var assignment : solution.committeeAssignments) {
+                if (assignment.committee == null) {
+                    free.add(assignment);
+                }
+            }
+            for (var committee : toFill) {
+                if (isPhaseTerminated.getAsBoolean()) {
+                    return;
+                }
+                fill(committee, free);
+            }
+        }
+
+        // The committees breaking constraints, the most broken first
+        private List<Committee> getWorstCommittees() {
+            Map<Committee, Integer> violations = new HashMap<>();
+            for (var committee : solution.committees) {
+                int count = countViolations(committee);
+                if (count > 0) {
+                    violations.put(committee, count);
+                }
+            }
+            List<Committee> worst = new ArrayList<>(violations.keySet());
+            // Ties in random order
+            Collections.shuffle(worst, random);
+            worst.sort(Comparator.comparing(violations::get, Comparator.reverseOrder()));
+            return worst.subList(0, Math.min(committeeCount, worst.size()));
+        }
+
+        // The constraints of the constraint provider matching the committee
+        private int countViolations(Committee committee) {
+            int count = 0;
+            if (committee.duplicatedEvaluator()) {
+                count++;
+            }
+            if (!committee.hasCorrectNumberOfMaxProfessionalPersons()
+                    || !committee.hasCorrectNumberOfMinProfessionalPersons()) {
+                count++;
+            }
+            if (!committee.hasCorrectNumberOfMaxNonProfessionalPersons()
+                    || !committee.hasCorrectNumberOfMinNonProfessionalPersons()) {
+                count++;
+            }
+            if (committee.notEnoughAvailableEvaluators()) {
+                count++;
+            }
+            if (committee.evaluatedNotAvailable()) {
+                count++;
+            }
+            if (committee.requiredSkillsNotSatisfied()) {
+                count++;
+            }
+            if (committee.inspectionFollowUpNotRespected()) {
+                count++;
+            }
+            for (var assignment : committee.assignments) {
+                if (isReciprocal(committee, assignment.assignedPerson)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // Whether the evaluated person of the committee evaluates the person
+        private boolean isReciprocal(Committee committee, Person person) {
+            var personCommittee = committeesByEvaluated.get(person);
+            return personCommittee != null && personCommittee.assignments.stream()
+                    .anyMatch(a -> a.assignedPerson.equals(committee.evaluatedPerson));
+        }
+
+        private TimeSlot getBestTimeSlot(Committee committee) {
+            boolean useAvailability = !Boolean.FALSE.equals(solution.settings.useAvailability);
+            var meetingSize = solution.settings.committeeMeetingSize;
+            List<TimeSlot> candidates = new ArrayList<>(solution.timeSlots);
+            Collections.shuffle(candidates, random);
+            TimeSlot best = null;
+            int bestValue = Integer.MIN_VALUE;
+            for (var timeSlot : candidates) {
+                int value = 0;
+                if (useAvailability) {
+                    value += committee.evaluatedPerson.isAvailable(timeSlot) ? 2 : 0;
+                    value += committee.assignments.stream()
+                            .filter(a -> a.assignedPerson.isAvailable(timeSlot)).count() >= 2 ? 2
+                                    : 0;
+                }
+                if (meetingSize != null
+                        && meetings.getOrDefault(timeSlot, 0) >= meetingSize.getMax()) {
+                    value--;
+                }
+                if (value > bestValue) {
+                    best = timeSlot;
+                    bestValue = value;
+                }
+            }
+            return best;
+        }
+
+        // Assigns the free assignments repairing the committee, the most repairing first
+        private void fill(Committee committee, List<CommitteeAssignment> free) {
+            while (true) {
+                CommitteeAssignment best = null;
+                int bestGain = 0;
+                Collections.shuffle(free, random);
+                for (var assignment : free) {
+                    int gain = getGain(committee, assignment);
+                    if (gain > bestGain) {
+                        best = assignment;
+                        bestGain = gain;
+                    }
+                }
+                if (best == null) {
+                    return;
+                }
+                free.remove(best);
+                assign(best, committee);
+            }
+        }
+
+        /**
+         * @return How much assigning the person to the committee repairs it, 0 or less if it
+         *         repairs nothing or breaks a constraint.
+         */
+        private int getGain(Committee committee, CommitteeAssignment assignment) {
+            var person = assignment.assignedPerson;
+            var settings = solution.settings;
+            int index = committeeIndexes.get(committee);
+            boolean possible = false;
+            for (int possibleIndex : assignment.possibleCommitteeIndexes) {
+                possible |= possibleIndex == index;
+            }
+            if (!possible || isReciprocal(committee, person)
+                    || committee.assignments.stream().anyMatch(a -> a.assignedPerson == person)) {
+                return 0;
+            }
+            int distance = distances.getOrDefault(person, 0) + distanceTo(person, committee);
+            if (distance > person.travellingDistanceRangeConstraint.getMax()) {
+                return 0;
+            }
+            int gain = 0;
+            long pros = count(committee, PersonType.PROFESSIONAL);
+            long nonPros = count(committee, PersonType.NON_PROFESSIONAL);
+            if (PersonType.PROFESSIONAL.equals(person.personType)) {
+                if (pros >= settings.nbProParticipants.getMax()) {
+                    return 0;
+                }
+                gain += pros < settings.nbProParticipants.getMin() ? 100 : 0;
+            } else if (PersonType.NON_PROFESSIONAL.equals(person.personType)) {
+                if (nonPros >= settings.nbNonProParticipants.getMax()) {
+                    return 0;
+                }
+                gain += nonPros < settings.nbNonProParticipants.getMin() ? 100 : 0;
+            }
+            for (var skill : committee.evaluatedPerson.requiredSkills) {
+                if (person.hasSkill(skill) && committee.assignments.stream()
+                        .noneMatch(a -> a.assignedPerson.hasSkill(skill))) {
+                    gain += 2;
+                }
+            }
+            if (committee.notEnoughAvailableEvaluators()
+                    && person.isAvailable(committee.timeSlot)) {
+                gain += 2;
+            }
+            var evaluated = committee.evaluatedPerson;
+            if (person.hasAlreadyInspectedLastTime(evaluated)) {
+                long followUps = committee.assignments.stream()
+                        .filter(a -> a.assignedPerson.hasAlreadyInspectedLastTime(evaluated))
+                        .count();
+                gain += followUps < settings.nbInspectorsFollowingUp ? 1 : -1;
+            }
+            return gain;
+        }
+
+        private long count(Committee committee, PersonType personType) {
+            return committee.assignments.stream()
+                    .filter(a -> personType.equals(a.assignedPerson.personType)).count();
+        }
+
+        private int distanceTo(Person person, Committee committee) {
+            var distanceMatrix = solution.committeeAssignments.get(0).distanceMatrix;
+            return distanceMatrix == null ? 0
+                    : distanceMatrix.getDistance(person.location,
+                            committee.evaluatedPerson.location);
+        }
+
+        private void assign(CommitteeAssignment assignment, Committee committee) {
+            if (assignment.committee != null) {
+                distances.merge(assignment.assignedPerson, -assignment.getDistance(),
+                        Integer::sum);
+            }
+            scoreDirector.beforeVariableChanged(assignment, COMMITTEE);
+            assignment.committee = committee;
+            scoreDirector.afterVariableChanged(assignment, COMMITTEE);
+            // Updates the assignments of the committees, read by the next changes
+            scoreDirector.triggerVariableListeners();
+            if (committee != null) {
+                distances.merge(assignment.assignedPerson, assignment.getDistance(),
+                        Integer::sum);
+            }
+        }
+
+        private void schedule(Committee committee, TimeSlot timeSlot) {
+            if (committee.timeSlot != null) {
+                meetings.merge(committee.timeSlot, -1, Integer::sum);
+            }
+            scoreDirector.beforeVariableChanged(committee, TIME_SLOT);
+            committee.timeSlot = timeSlot;
+            scoreDirector.afterVariableChanged(committee, TIME_SLOT);
+            scoreDirector.triggerVariableListeners();
+            if (timeSlot != null) {
+                meetings.merge(timeSlot, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package fr.cirad.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import ai.timefold.solver.core.api.solver.SolverConfigOverride;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.constructionheuristic.placer.QueuedEntityPlacerConfig;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionCacheType;
+import ai.timefold.solver.core.config.heuristic.selector.entity.EntitySelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchType;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.phase.custom.CustomPhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import fr.cirad.domain.Committee;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.PortfolioMember;
+import fr.cirad.domain.SolverOptions;
+
+/**
+ * Resolves the solver profile of a request into the solver manager running the job and the
+ * termination applied to it. The termination is overridden per job, while each algorithm and
+ * strategy gets its own solver manager as the phases cannot be overridden per job. These solver
+ * managers each have their own threads, the jobs of all of them are counted against a single
+ * solver budget by {@code AdmissionControl}.
+ */
+@ApplicationScoped
+public class SolverProfiles {
+
+    @Inject
+    SolverProfilesConfig config;
+
+    @Inject
+    SolverConfig solverConfig;
+
+    @Inject
+    SolverFactory<CommitteeSolution> solverFactory;
+
+    @Inject
+    SolverManager<CommitteeSolution, UUID> solverManager;
+
+    private record Phases(LocalSearchType algorithm, SolvingStrategy strategy) {
+    }
+
+    private final Map<Phases, SolverFactory<CommitteeSolution>> phasesSolverFactories =
+            new ConcurrentHashMap<>();
+
+    private final Map<Phases, SolverManager<CommitteeSolution, UUID>> phasesSolverManagers =
+            new ConcurrentHashMap<>();
+
+    public SolverManager<CommitteeSolution, UUID> getSolverManager(SolverOptions options) {
+        var phases = new Phases(getAlgorithm(options), getStrategy(options));
+        if (isConfiguredPhases(phases)) {
+            return solverManager;
+        }
+        return phasesSolverManagers.computeIfAbsent(phases,
+                p -> SolverManager.create(getSolverFactory(p)));
+    }
+
+    /**
+     * The solver factory of a request, the one of the application for the phases of
+     * solverConfig.xml.
+     */
+    public SolverFactory<CommitteeSolution> getSolverFactory(SolverOptions options) {
+        return getSolverFactory(new Phases(getAlgorithm(options), getStrategy(options)));
+    }
+
+    private SolverFactory<CommitteeSolution> getSolverFactory(Phases phases) {
+        if (isConfiguredPhases(phases)) {
+            return solverFactory;
+        }
+        return phasesSolverFactories.computeIfAbsent(phases,
+                p -> SolverFactory.create(getSolverConfig(p, null)));
+    }
+
+    // The phases of solverConfig.xml, as the injected solver manager runs them
+    private boolean isConfiguredPhases(Phases phases) {
+        return phases.algorithm() == null && phases.strategy() == SolvingStrategy.JOINT
+                && config.ruinAndRecreate().rounds() == 0;
+    }
+
+    /**
+     * The solver configuration of a request, without its termination.
+     */
+    public SolverConfig getSolverConfig(SolverOptions options) {
+        return getSolverConfig(new Phases(getAlgorithm(options), getStrategy(options)), null);
+    }
+
+    /**
+     * The solver configuration of a portfolio member, without its termination.
+     */
+    public SolverConfig getSolverConfig(SolverOptions options, PortfolioMember member,
+            long randomSeed) {
+        var algorithm = member.algorithm != null ? parseAlgorithm(member.algorithm)
+                : getAlgorithm(options);
+        var strategy = member.strategy != null ? parseStrategy(member.strategy)
+                : getStrategy(options);
+        return getSolverConfig(new Phases(algorithm, strategy), randomSeed);
+    }
+
+    /**
+     * Resolves the profile, algorithm and strategy of a request and of its portfolio members.
+     *
+     * @throws IllegalArgumentException if one of them is unknown, or if the portfolio has too
+     *         many members.
+     */
+    public void validate(SolverOptions options) {
+        getProfile(options);
+        getAlgorithm(options);
+        getStrategy(options);
+        if (options.portfolio != null) {
+            int maxMembers = getMaxPortfolioMembers();
+            if (options.portfolio.size() > maxMembers) {
+                throw new IllegalArgumentException("A portfolio has at most " + maxMembers
+                        + " members, not " + options.portfolio.size());
+            }
+            for (var member : options.portfolio) {
+                if (member.algorithm != null) {
+                    parseAlgorithm(member.algorithm);
+                }
+                if (member.strategy != null) {
+                    parseStrategy(member.strategy);
+                }
+            }
+        }
+    }
+
+    // Each member solving on its own thread
+    int getMaxPortfolioMembers() {
+        return config.portfolio().maxMembers()
+                .orElse(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SolverConfigOverride<CommitteeSolution> getConfigOverride(SolverOptions options) {
+        var profile = getProfile(options);
+        var terminationConfig = new TerminationConfig();
+        getSpentLimit(options).ifPresent(terminationConfig::setSpentLimit);
+        profile.unimprovedSpentLimit().ifPresent(terminationConfig::setUnimprovedSpentLimit);
+        profile.bestScoreLimit().ifPresent(terminationConfig::setBestScoreLimit);
+        if (options.unimprovedSpentLimitSeconds != null) {
+            terminationConfig.setUnimprovedSpentLimit(
+                    Duration.ofSeconds(options.unimprovedSpentLimitSeconds));
+        }
+        if (options.bestScoreLimit != null) {
+            terminationConfig.setBestScoreLimit(options.bestScoreLimit);
+        }
+        return new SolverConfigOverride<CommitteeSolution>()
+                .withTerminationConfig(terminationConfig);
+    }
+
+    /**
+     * @return The spent limit of a request, its explicit one or the one of its profile.
+     */
+    public Optional<Duration> getSpentLimit(SolverOptions options) {
+        if (options.spentLimitSeconds != null) {
+            return Optional.of(Duration.ofSeconds(options.spentLimitSeconds));
+        }
+        return getProfile(options).spentLimit();
+    }
+
+    LocalSearchType getAlgorithm(SolverOptions options) {
+        if (options.algorithm != null) {
+            return parseAlgorithm(options.algorithm);
+        }
+        return getProfile(options).algorithm().orElse(null);
+    }
+
+    private static LocalSearchType parseAlgorithm(String algorithm) {
+        try {
+            return LocalSearchType.valueOf(algorithm.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown algorithm (" + algorithm
+                    + "), expected one of " + List.of(LocalSearchType.values()), e);
+        }
+    }
+
+    SolvingStrategy getStrategy(SolverOptions options) {
+        if (options.strategy != null) {
+            return parseStrategy(options.strategy);
+        }
+        return getProfile(options).strategy().orElse(SolvingStrategy.JOINT);
+    }
+
+    private static SolvingStrategy parseStrategy(String strategy) {
+        try {
+            return SolvingStrategy.valueOf(strategy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown strategy (" + strategy
+                    + "), expected one of " + List.of(SolvingStrategy.values()), e);
+        }
+    }
+
+    SolverProfilesConfig.Profile getProfile(SolverOptions options) {
+        var name = options.profile != null ? options.profile : config.defaultProfile();
+        var profile = config.profiles().get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown solver profile (" + name
+                    + "), expected one of " + config.profiles().keySet());
+        }
+        return profile;
+    }
+
+    private SolverConfig getSolverConfig(Phases phases, Long randomSeed) {
+        var config = solverConfig.copyConfig();
+        if (randomSeed != null) {
+            config.setRandomSeed(randomSeed);
+        }
+        List<PhaseConfig> configuredPhases = config.getPhaseConfigList();
+        if (configuredPhases == null || configuredPhases.isEmpty()) {
+            configuredPhases = List.of(new ConstructionHeuristicPhaseConfig(),
+                    new LocalSearchPhaseConfig());
+        }
+        List<PhaseConfig> phaseList = new ArrayList<>();
+        if (phases.strategy() == SolvingStrategy.PHASED) {
+            phaseList.add(constructionHeuristic(Committee.class));
+            phaseList.add(localSearch(Committee.class, null, null,
+                    this.config.phased().timeSlotUnimprovedSpentLimit()));
+            phaseList.add(constructionHeuristic(CommitteeAssignment.class));
+            phaseList.add(localSearch(CommitteeAssignment.class, AssignmentChangeMoveFilter.class,
+                    AssignmentSwapMoveFilter.class,
+                    this.config.phased().assignmentUnimprovedSpentLimit()));
+            // The configured construction heuristics have nothing left to initialize
+            configuredPhases.stream()
+                    .filter(phase -> !(phase instanceof ConstructionHeuristicPhaseConfig))
+                    .forEach(phaseList::add);
+        } else {
+            phaseList.addAll(configuredPhases);
+        }
+        if (phases.algorithm() != null) {
+            phaseList.replaceAll(phase -> phase instanceof LocalSearchPhaseConfig localSearch
+                    ? withAlgorithm(localSearch, phases.algorithm())
+                    : phase);
+        }
+        config.setPhaseConfigList(repeatRuinAndRecreate(phaseList, config.getRandomSeed()));
+        return config;
+    }
+
+    /**
+     * Repeats the ruin and recreate phase of solverConfig.xml with the local search following it,
+     * each local search before a ruin ending once it stops improving. Each round ruins with its
+     * own seed, derived from the one of the solver. Without rounds, the phases run once as
+     * configured.
+     */
+    private List<PhaseConfig> repeatRuinAndRecreate(List<PhaseConfig> phases, Long randomSeed) {
+        int rounds = this.config.ruinAndRecreate().rounds();
+        if (rounds <= 0) {
+            return phases;
+        }
+        int index = -1;
+        for (int i = 1; i < phases.size() - 1 && index < 0; i++) {
+            if (phases.get(i) instanceof CustomPhaseConfig custom
+                    && custom.getCustomPhaseCommandClassList() != null
+                    && custom.getCustomPhaseCommandClassList()
+                            .contains(RuinAndRecreatePhase.class)
+                    && phases.get(i - 1) instanceof LocalSearchPhaseConfig
+                    && phases.get(i + 1) instanceof LocalSearchPhaseConfig) {
+                index = i;
+            }
+        }
+        if (index < 0) {
+            return phases;
+        }
+        var ruinAndRecreate = (CustomPhaseConfig) phases.get(index);
+        var localSearch = (LocalSearchPhaseConfig) phases.get(index + 1);
+        var unimprovedSpentLimit = this.config.ruinAndRecreate().unimprovedSpentLimit();
+        long seed = randomSeed == null ? 0 : randomSeed;
+
+        List<PhaseConfig> repeated = new ArrayList<>(phases.subList(0, index - 1));
+        repeated.add(withUnimprovedSpentLimit((LocalSearchPhaseConfig) phases.get(index - 1),
+                unimprovedSpentLimit));
+        for (int round = 0; round < rounds; round++) {
+            var ruin = ruinAndRecreate.copyConfig();
+            Map<String, String> properties = new HashMap<>();
+            if (ruin.getCustomProperties() != null) {
+                properties.putAll(ruin.getCustomProperties());
+            }
+            properties.put("randomSeed", Long.toString(seed * 31 + round));
+            ruin.setCustomProperties(properties);
+            repeated.add(ruin);
+            repeated.add(round < rounds - 1
+                    ? withUnimprovedSpentLimit(localSearch, unimprovedSpentLimit)
+                    : localSearch);
+        }
+        repeated.addAll(phases.subList(index + 2, phases.size()));
+        return repeated;
+    }
+
+    private static LocalSearchPhaseConfig withUnimprovedSpentLimit(
+            LocalSearchPhaseConfig localSearch, Duration unimprovedSpentLimit) {
+        var copy = localSearch.copyConfig();
+        copy.setTerminationConfig(
+                new TerminationConfig().withUnimprovedSpentLimit(unimprovedSpentLimit));
+        return copy;
+    }
+
+    private static LocalSearchPhaseConfig withAlgorithm(LocalSearchPhaseConfig localSearch,
+            LocalSearchType algorithm) {
+        var copy = localSearch.copyConfig();
+        copy.setAcceptorConfig(null);
+        copy.setForagerConfig(null);
+        copy.setLocalSearchType(algorithm);
+        return copy;
+    }
+
+    // Initializes the planning variable of one entity class only
+    private static ConstructionHeuristicPhaseConfig constructionHeuristic(Class<?> entityClass) {
+        var entitySelector = new EntitySelectorConfig(entityClass);
+        entitySelector.setId(entityClass.getName());
+        entitySelector.setCacheType(SelectionCacheType.PHASE);
+        var moveSelector = new ChangeMoveSelectorConfig();
+        moveSelector.setEntitySelectorConfig(
+                EntitySelectorConfig.newMimicSelectorConfig(entitySelector.getId()));
+        var entityPlacer = new QueuedEntityPlacerConfig();
+        entityPlacer.setEntitySelectorConfig(entitySelector);
+        entityPlacer.setMoveSelectorConfigList(List.of(moveSelector));
+        var phase = new ConstructionHeuristicPhaseConfig();
+        phase.setEntityPlacerConfig(entityPlacer);
+        return phase;
+    }
+
+    // Changes and swaps the planning variable of one entity class only
+    @SuppressWarnings("rawtypes")
+    private static LocalSearchPhaseConfig localSearch(Class<?> entityClass,
+            Class<? extends SelectionFilter> changeFilter,
+            Class<? extends SelectionFilter> swapFilter, Duration unimprovedSpentLimit) {
+        var changeMoveSelector = new ChangeMoveSelectorConfig();
+        changeMoveSelector.setEntitySelectorConfig(new EntitySelectorConfig(entityClass));
+        changeMoveSelector.setFilterClass(changeFilter);
+        var swapMoveSelector = new SwapMoveSelectorConfig();
+        swapMoveSelector.setEntitySelectorConfig(new EntitySelectorConfig(entityClass));
+        swapMoveSelector.setFilterClass(swapFilter);
+        var phase = new LocalSearchPhaseConfig();
+        phase.setMoveSelectorConfig(
+                new UnionMoveSelectorConfig(List.of(changeMoveSelector, swapMoveSelector)));
+        phase.setTerminationConfig(
+                new TerminationConfig().withUnimprovedSpentLimit(unimprovedSpentLimit));
+        return phase;
+    }
+
+    @PreDestroy
+    void close() {
+        // The injected solver manager is closed by the Timefold extension
+        phasesSolverManagers.values().forEach(SolverManager::close);
+    }
+}
@@ -0,0 +1,105 @@
+package fr.cirad.solver;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import ai.timefold.solver.core.config.localsearch.LocalSearchType;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Named solver profiles defined in application.properties, e.g.
+ * {@code dicoop.solver.profiles.fast.spent-limit=30s}.
+ */
+@ConfigMapping(prefix = "dicoop.solver")
+public interface SolverProfilesConfig {
+
+    /**
+     * The profile used when a request does not name one.
+     */
+    @WithDefault("balanced")
+    String defaultProfile();
+
+    Map<String, Profile> profiles();
+
+    /**
+     * The phases of the {@link SolvingStrategy#PHASED} strategy.
+     */
+    Phased phased();
+
+    /**
+     * The portfolio mode, see {@link PortfolioSolver}.
+     */
+    Portfolio portfolio();
+
+    /**
+     * The rounds of {@link RuinAndRecreatePhase} at the end of a solve.
+     */
+    RuinAndRecreate ruinAndRecreate();
+
+    interface Profile {
+
+        Optional<Duration> spentLimit();
+
+        Optional<Duration> unimprovedSpentLimit();
+
+        Optional<String> bestScoreLimit();
+
+        /**
+         * The local search algorithm, the one of the solver configuration when empty.
+         */
+        Optional<LocalSearchType> algorithm();
+
+        /**
+         * The solving strategy, {@link SolvingStrategy#JOINT} when empty.
+         */
+        Optional<SolvingStrategy> strategy();
+    }
+
+    interface Phased {
+
+        /**
+         * Ends the time slot phase once its best score has not improved for this long.
+         */
+        @WithDefault("5s")
+        Duration timeSlotUnimprovedSpentLimit();
+
+        /**
+         * Ends the assignment phase once its best score has not improved for this long.
+         */
+        @WithDefault("10s")
+        Duration assignmentUnimprovedSpentLimit();
+    }
+
+    interface RuinAndRecreate {
+
+        /**
+         * Ends the local search before each ruin once its best score has not improved for this
+         * long.
+         */
+        @WithDefault("15s")
+        Duration unimprovedSpentLimit();
+
+        /**
+         * The number of ruin and recreate phases, each followed by a local search, 0 to run the
+         * phases of solverConfig.xml once.
+         */
+        @WithDefault("0")
+        int rounds();
+    }
+
+    interface Portfolio {
+
+        /**
+         * Terminates a member once its best score is worse than the best of the portfolio and
+         * has not improved for this long.
+         */
+        @WithDefault("60s")
+        Duration patience();
+
+        /**
+         * The most members of a portfolio, the available processors when empty.
+         */
+        Optional<Integer> maxMembers();
+    }
+}
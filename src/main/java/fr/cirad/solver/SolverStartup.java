@@ -0,0 +1,143 @@
+package fr.cirad.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ai.timefold.solver.core.api.score.ScoreManager;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverConfigOverride;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.Location;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.PersonType;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.Settings;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.TimeSlot;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Builds the solver factory of the default requests when the application starts instead of on the
+ * first request, so the constraint definitions of {@link CommitteeSchedulingConstraintProvider}
+ * are compiled before the instance receives traffic. It is the factory injected by the Timefold
+ * extension, whose configuration is processed at build time, unless the ruin and recreate rounds
+ * give the default requests their own factory.
+ * <p>
+ * With {@code dicoop.warm-up.enabled}, a synthetic problem then goes through the path of a request
+ * in the background: JSON deserialization, a short solve, the score explanation and the JSON
+ * serialization of the solution. The instance is reported ready once it is done.
+ */
+@ApplicationScoped
+public class SolverStartup {
+
+    @Inject
+    SolverProfiles solverProfiles;
+
+    @Inject
+    ScoreManager<CommitteeSolution, HardMediumSoftScore> scoreManager;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "dicoop.warm-up.enabled", defaultValue = "false")
+    boolean warmUpEnabled;
+
+    @ConfigProperty(name = "dicoop.warm-up.spent-limit", defaultValue = "5s")
+    Duration warmUpSpentLimit;
+
+    @ConfigProperty(name = "dicoop.warm-up.participants", defaultValue = "40")
+    int warmUpParticipants;
+
+    private volatile boolean ready;
+
+    void onStart(@Observes StartupEvent event) {
+        long start = System.nanoTime();
+        solverProfiles.getSolverFactory(new SolverOptions()).buildSolver();
+        log.infof("Solver factory initialized in %d ms", (System.nanoTime() - start) / 1_000_000);
+        if (!warmUpEnabled) {
+            ready = true;
+            return;
+        }
+        var thread = new Thread(this::warmUp, "solver-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Whether the warm-up is finished, or disabled.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        try {
+            var json = objectMapper.writeValueAsBytes(syntheticProblem(warmUpParticipants));
+            var options = objectMapper.readValue(json, SolverOptions.class);
+            var problem = new CommitteeSolution(new UUID(0, 0), options);
+            var solver = solverProfiles.getSolverFactory(options)
+                    .buildSolver(new SolverConfigOverride<CommitteeSolution>()
+                            .withTerminationConfig(new TerminationConfig()
+                                    .withSpentLimit(warmUpSpentLimit)));
+            var solution = solver.solve(problem);
+            scoreManager.updateScore(solution);
+            solution.scoreExplanation = scoreManager.explainScore(solution).toString();
+            objectMapper.writeValueAsBytes(solution);
+            log.infof("Solver warmed up in %d ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // Not worth keeping the instance out of service
+            log.warn("Solver warm-up failed", e);
+        } finally {
+            ready = true;
+        }
+    }
+
+    // Participants spread over four locations and three time slots, two professionals for one
+    // non-professional, each of them evaluated
+    private static SolverOptions syntheticProblem(int participants) {
+        var settings = new Settings();
+        settings.nbProParticipants = new Range(2, 2);
+        settings.numberOfAssignmentsForAProfessional = new Range(2, 2);
+        settings.nbNonProParticipants = new Range(1, 1);
+        settings.numberOfAssignmentsForANonProfessional = new Range(1, 3);
+        settings.nbExternalParticipants = new Range(0, 0);
+        settings.numberOfAssignmentsForAnExternal = new Range(0, 5);
+        settings.travellingDistanceRange = new Range(0, 1_000);
+        settings.committeeMeetingSize = new Range(1, participants);
+        settings.useAvailability = true;
+        settings.shuffleParticipants = false;
+
+        double[][] coordinates = {{48.8566, 2.3522}, {45.7640, 4.8357}, {43.2965, 5.3698},
+                {43.6108, 3.8767}};
+        String[] timeSlots = {"monday", "tuesday", "wednesday"};
+        List<Person> persons = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            var person = new Person("participant-" + i, null);
+            person.personType = i % 3 == 2 ? PersonType.NON_PROFESSIONAL : PersonType.PROFESSIONAL;
+            person.location = new Location("location-" + i % coordinates.length);
+            person.location.latitude = coordinates[i % coordinates.length][0];
+            person.location.longitude = coordinates[i % coordinates.length][1];
+            person.availability.add(new TimeSlot(timeSlots[i % timeSlots.length], null));
+            person.availability.add(new TimeSlot(timeSlots[(i + 1) % timeSlots.length], null));
+            person.needsEvaluation = true;
+            persons.add(person);
+        }
+
+        var options = new SolverOptions();
+        options.settings = settings;
+        options.participants = persons;
+        return options;
+    }
+}
@@ -0,0 +1,13 @@
+package fr.cirad.solver;
+
+/**
+ * How the time slots of the committees and the evaluators of the assignments are optimized.
+ */
+public enum SolvingStrategy {
+    // Time slots and assignments are optimized together, as configured in solverConfig.xml
+    JOINT,
+    // Time slots are scheduled first from the availability of the evaluated persons and the
+    // number of committees per time slot, then the evaluators are assigned with the time slots
+    // fixed, and a joint local search refines both. Not benchmarked against JOINT yet
+    PHASED
+}
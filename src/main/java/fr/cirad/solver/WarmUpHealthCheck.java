@@ -0,0 +1,24 @@
+package fr.cirad.solver;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Keeps the instance out of service until the solver warm-up is finished.
+ */
+@Readiness
+@ApplicationScoped
+public class WarmUpHealthCheck implements HealthCheck {
+
+    @Inject
+    SolverStartup solverStartup;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("Solver warm-up").status(solverStartup.isReady())
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.UUID;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+class CommitteeSolutionClonerTest {
+
+    private CommitteeSolution loadDefaultSolution() throws IOException {
+        var mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        var resource = Files.readString(Paths.get("src/test/resources", "default-problem.json"));
+        return new CommitteeSolution(UUID.randomUUID(),
+                mapper.readValue(resource, SolverOptions.class));
+    }
+
+    // Assigns every other assignment to one of its possible committees, as the solver would
+    private void assignSome(CommitteeSolution solution) {
+        for (int i = 0; i < solution.committees.size(); i++) {
+            solution.committees.get(i).timeSlot =
+                    solution.timeSlots.get(i % solution.timeSlots.size());
+        }
+        for (int i = 0; i < solution.committeeAssignments.size(); i += 2) {
+            var assignment = solution.committeeAssignments.get(i);
+            var possibleCommittees = assignment.getPossibleCommittees();
+            if (!possibleCommittees.isEmpty()) {
+                assignment.committee = possibleCommittees.get(i % possibleCommittees.size());
+                assignment.committee.assignments.add(assignment);
+            }
+        }
+        solution.score = HardMediumSoftScore.of(-1, -2, -3);
+    }
+
+    @Test
+    void cloneTest() throws IOException {
+        var original = loadDefaultSolution();
+        assignSome(original);
+        var clone = new CommitteeSolutionCloner().cloneSolution(original);
+
+        // Problem facts are shared
+        assertSame(original.settings, clone.settings);
+        assertSame(original.persons, clone.persons);
+        assertSame(original.timeSlots, clone.timeSlots);
+        assertSame(original.constraintWeightOverrides, clone.constraintWeightOverrides);
+        assertEquals(original.score, clone.score);
+
+        // Planning entities are copied
+        var cloneCommittees = Collections.newSetFromMap(new IdentityHashMap<Committee, Boolean>());
+        cloneCommittees.addAll(clone.committees);
+        assertEquals(original.committees.size(), clone.committees.size());
+        for (int i = 0; i < original.committees.size(); i++) {
+            var committee = original.committees.get(i);
+            var committeeClone = clone.committees.get(i);
+            assertNotSame(committee, committeeClone);
+            assertEquals(committee.id, committeeClone.id);
+            assertSame(committee.timeSlot, committeeClone.timeSlot);
+            assertEquals(committee.assignments.size(), committeeClone.assignments.size());
+            for (int j = 0; j < committee.assignments.size(); j++) {
+                assertEquals(committee.assignments.get(j).id, committeeClone.assignments.get(j).id);
+                assertSame(committeeClone, committeeClone.assignments.get(j).committee);
+            }
+        }
+
+        assertEquals(original.committeeAssignments.size(), clone.committeeAssignments.size());
+        for (int i = 0; i < original.committeeAssignments.size(); i++) {
+            var assignment = original.committeeAssignments.get(i);
+            var assignmentClone = clone.committeeAssignments.get(i);
+            assertNotSame(assignment, assignmentClone);
+            assertEquals(assignment.id, assignmentClone.id);
+            assertSame(assignment.assignedPerson, assignmentClone.assignedPerson);
+            if (assignment.committee == null) {
+                assertNull(assignmentClone.committee);
+            } else {
+                assertTrue(cloneCommittees.contains(assignmentClone.committee));
+                assertEquals(assignment.committee.id, assignmentClone.committee.id);
+            }
+            // The value range holds the committees of the clone
+            assertEquals(assignment.getPossibleCommittees(),
+                    assignmentClone.getPossibleCommittees());
+            assignmentClone.getPossibleCommittees()
+                    .forEach(committee -> assertTrue(cloneCommittees.contains(committee)));
+        }
+
+        // Changing the clone leaves the original untouched
+        int assigned = original.committeeAssignments.indexOf(original.committeeAssignments
+                .stream().filter(a -> a.committee != null).findFirst().orElseThrow());
+        var assignment = original.committeeAssignments.get(assigned);
+        var assignmentClone = clone.committeeAssignments.get(assigned);
+        var committee = assignment.committee;
+        assignmentClone.committee.assignments.remove(assignmentClone);
+        assignmentClone.committee = null;
+        clone.committees.get(0).timeSlot = null;
+        assertSame(committee, assignment.committee);
+        assertTrue(committee.assignments.stream().anyMatch(a -> a == assignment));
+        assertEquals(original.timeSlots.get(0), original.committees.get(0).timeSlot);
+    }
+}
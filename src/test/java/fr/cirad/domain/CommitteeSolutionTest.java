@@ -1,11 +1,19 @@
 package fr.cirad.domain;
 
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_PROFESSIONAL_EVALUATORS;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.VETOES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import jakarta.inject.Inject;
@@ -13,10 +21,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import ai.timefold.solver.benchmark.api.PlannerBenchmark;
 import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import ai.timefold.solver.benchmark.config.PlannerBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.SolverBenchmarkConfig;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverConfigOverride;
+import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
 import ai.timefold.solver.test.api.score.stream.ConstraintVerifier;
 import fr.cirad.solver.CommitteeSchedulingConstraintProvider;
+import fr.cirad.solver.SolverProfiles;
+import fr.cirad.solver.SolvingStrategy;
 import io.quarkus.test.junit.QuarkusTest;
 
 @QuarkusTest
@@ -28,9 +43,15 @@ class CommitteeSolutionTest {
         @Inject
         SolverManager<CommitteeSolution, UUID> solverManager;
 
+        @Inject
+        SolutionManager<CommitteeSolution, HardMediumSoftScore> solutionManager;
+
         @Inject
         PlannerBenchmarkFactory benchmarkFactory;
 
+        @Inject
+        SolverProfiles solverProfiles;
+
         Long committeeAssignmentId = 0L;
 
         private String getResourceAsText(String filename) throws IOException {
@@ -72,6 +93,81 @@ class CommitteeSolutionTest {
                 System.out.println("PATH: " + path);
         }
 
+        // Compares the joint and phased strategies on the default problem. Not run yet, PHASED
+        // stays opt-in until its report is compared
+        // @Test
+        void strategyBenchmark() throws IOException {
+                var problem = new CommitteeSolution(UUID.randomUUID(), loadDefaultSolverOptions());
+                List<SolverBenchmarkConfig> solverBenchmarks = new ArrayList<>();
+                for (var strategy : SolvingStrategy.values()) {
+                        var solverOptions = loadDefaultSolverOptions();
+                        solverOptions.strategy = strategy.name();
+                        var solverBenchmark = new SolverBenchmarkConfig();
+                        solverBenchmark.setName(strategy.name());
+                        solverBenchmark.setSolverConfig(solverProfiles
+                                        .getSolverConfig(solverOptions)
+                                        .withTerminationConfig(new TerminationConfig()
+                                                        .withSpentLimit(Duration.ofMinutes(2))));
+                        solverBenchmarks.add(solverBenchmark);
+                }
+                var benchmarkConfig = new PlannerBenchmarkConfig();
+                benchmarkConfig.setBenchmarkDirectory(new File("build/benchmarks"));
+                benchmarkConfig.setWarmUpSecondsSpentLimit(30L);
+                benchmarkConfig.setSolverBenchmarkConfigList(solverBenchmarks);
+
+                PlannerBenchmark benchmark = PlannerBenchmarkFactory.create(benchmarkConfig)
+                                .buildPlannerBenchmark(problem);
+                var path = benchmark.benchmark().toPath().toAbsolutePath().toString();
+                assertNotNull(path);
+                System.out.println("PATH: " + path);
+        }
+
+        // Compares the heap footprint estimated by FootprintEstimator to the one measured halfway
+        // through solving synthetic problems, to calibrate its costs per object: the fixed cost
+        // of a job and the cost per assignment, committees and persons growing with them in
+        // these problems, are fitted between the smallest and the largest problem. Not run yet, the
+        // admission control stays disabled by default until its figures are recorded here
+        // @Test
+        void footprintCalibration() throws InterruptedException, ExecutionException {
+                int[] sizes = {50, 200, 800};
+                long[] assignmentCounts = new long[sizes.length];
+                long[] measurements = new long[sizes.length];
+                for (int i = 0; i < sizes.length; i++) {
+                        int participants = sizes[i];
+                        var solverOptions = TestProblems.synthetic(participants);
+                        long estimate = FootprintEstimator.estimate(solverOptions);
+                        System.gc();
+                        var runtime = Runtime.getRuntime();
+                        long before = runtime.totalMemory() - runtime.freeMemory();
+
+                        var problem = new CommitteeSolution(UUID.randomUUID(), solverOptions);
+                        var configOverride = new SolverConfigOverride<CommitteeSolution>()
+                                        .withTerminationConfig(new TerminationConfig()
+                                                        .withSpentLimit(Duration.ofSeconds(20)));
+                        var solverJob = solverManager.solveBuilder().withProblemId(problem.id)
+                                        .withProblem(problem).withConfigOverride(configOverride)
+                                        .run();
+                        Thread.sleep(10_000);
+                        System.gc();
+                        long measured = runtime.totalMemory() - runtime.freeMemory() - before;
+                        solverJob.terminateEarly();
+                        solverJob.getFinalBestSolution();
+                        assignmentCounts[i] = problem.committeeAssignments.size();
+                        measurements[i] = measured;
+                        System.out.printf("%d participants, %d committees, %d assignments:"
+                                        + " estimated %d KB, measured %d KB%n", participants,
+                                        problem.committees.size(), assignmentCounts[i],
+                                        estimate / 1024, measured / 1024);
+                }
+                int last = sizes.length - 1;
+                long bytesPerAssignment = (measurements[last] - measurements[0])
+                                / (assignmentCounts[last] - assignmentCounts[0]);
+                System.out.printf("Measured: %d bytes per assignment, its committee and person"
+                                + " included, %d KB per job%n", bytesPerAssignment,
+                                (measurements[0] - bytesPerAssignment * assignmentCounts[0])
+                                                / 1024);
+        }
+
         // @Test
         void solutionTest() throws IOException, InterruptedException, ExecutionException {
                 var solverOptions = loadDefaultSolverOptions();
@@ -156,6 +252,96 @@ class CommitteeSolutionTest {
                                 .scores(HardMediumSoftScore.of(0, 0, 0));
         }
 
+        // The uninitialized committees all break the minimum number of professionals, weighted
+        // 100hard by default
+        @Test
+        void constraintWeightsTest() {
+                var off = weightedScore("0hard");
+                var unit = weightedScore("1hard");
+                assertTrue(unit.hardScore() < off.hardScore());
+                int penalty = unit.hardScore() - off.hardScore();
+                assertEquals(10 * penalty, weightedScore("10hard").hardScore() - off.hardScore());
+                assertEquals(100 * penalty, weightedScore(null).hardScore() - off.hardScore());
+                assertEquals(unit, weightedScore("0hard/1medium/0soft").add(
+                                HardMediumSoftScore.of(penalty, -penalty, 0)));
+                var medium = weightedScore("1medium");
+                assertEquals(off.hardScore(), medium.hardScore());
+                assertEquals(penalty, medium.mediumScore() - off.mediumScore());
+
+                assertThrows(IllegalArgumentException.class, () -> weightedScore("-1hard"));
+                assertThrows(IllegalArgumentException.class, () -> weightedScore("0hard/-1soft"));
+                assertThrows(IllegalArgumentException.class, () -> weightedScore("hard"));
+        }
+
+        // Participants 0 and 4 are in Paris, 1 and 5 in Lyon, 2 and 6 in Marseille, 3 and 7 in
+        // Montpellier
+        @Test
+        void possibleCommitteesTest() {
+                var solverOptions = TestProblems.synthetic(8);
+                // Marseille is 660 km from Paris, Montpellier 595 km
+                solverOptions.settings.travellingDistanceRange = new Range(0, 630);
+                var participants = solverOptions.participants;
+                var person = participants.get(0);
+                person.vetoes.add(participants.get(1));
+                // Inspected participant-5 last time, which is a follow-up, participant-3 before
+                person.hasAlreadyInspected =
+                                List.of(List.of("participant-5"), List.of("participant-3"));
+                var solution = new CommitteeSolution(UUID.randomUUID(), solverOptions);
+                var assignment = solution.committeeAssignments.stream()
+                                .filter(a -> a.assignedPerson.equals(person)).findFirst()
+                                .orElseThrow();
+                assertEquals(List.of("participant-4", "participant-5", "participant-7"),
+                                assignment.getPossibleCommittees().stream()
+                                                .map(committee -> committee.id).toList());
+
+                // Anyone else within reach of Lyon
+                var other = solution.committeeAssignments.stream()
+                                .filter(a -> a.assignedPerson.equals(participants.get(5)))
+                                .findFirst().orElseThrow();
+                assertEquals(List.of("participant-0", "participant-1", "participant-2",
+                                "participant-3", "participant-4", "participant-6",
+                                "participant-7"),
+                                other.getPossibleCommittees().stream()
+                                                .map(committee -> committee.id).toList());
+        }
+
+        // A veto weighted to zero no longer removes the committee from the value range, nor costs
+        @Test
+        void zeroWeightVetoTest() {
+                assertEquals(List.of("participant-1", "participant-2", "participant-3"),
+                                vetoedSolution("0hard").committeeAssignments.get(0)
+                                                .getPossibleCommittees().stream()
+                                                .map(committee -> committee.id).toList());
+                var zero = solutionManager.update(assignVetoed(vetoedSolution("0hard")));
+                var one = solutionManager.update(assignVetoed(vetoedSolution("1hard")));
+                assertEquals(1, zero.hardScore() - one.hardScore());
+        }
+
+        // Participant-0 vetoes participant-1
+        private CommitteeSolution vetoedSolution(String weight) {
+                var solverOptions = TestProblems.fourParticipants("participant-1",
+                                "participant-2", "participant-3");
+                var participants = solverOptions.participants;
+                participants.get(0).vetoes.add(participants.get(1));
+                solverOptions.settings.constraintWeights = Map.of(VETOES, weight);
+                return new CommitteeSolution(UUID.randomUUID(), solverOptions);
+        }
+
+        private CommitteeSolution assignVetoed(CommitteeSolution solution) {
+                solution.committeeAssignments.get(0).committee = solution.committees.get(0);
+                return solution;
+        }
+
+        private HardMediumSoftScore weightedScore(String weight) {
+                var solverOptions = TestProblems.synthetic(12);
+                if (weight != null) {
+                        solverOptions.settings.constraintWeights =
+                                        Map.of(MIN_PROFESSIONAL_EVALUATORS, weight);
+                }
+                return solutionManager
+                                .update(new CommitteeSolution(UUID.randomUUID(), solverOptions));
+        }
+
         private void addCommitteeAssignments(String evaluated, String p1, String p2, String p3,
                         SolverOptions solverOptions, CommitteeSolution solution) {
                 var committee = solution.getCommitteeByEvaluatedPersonName(evaluated).get();
@@ -0,0 +1,71 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DistanceMatrixFileTest {
+
+    @TempDir
+    Path directory;
+
+    // Converts the JSON form of the matrix with the main method, then maps the file
+    private DistanceMatrixFile convert(String json) throws IOException {
+        var input = directory.resolve("matrix.json");
+        var output = directory.resolve("matrix.dcm");
+        Files.writeString(input, json);
+        DistanceMatrixFile.main(new String[] {input.toString(), output.toString()});
+        return DistanceMatrixFile.open(output);
+    }
+
+    @Test
+    void shortCellsTest() throws IOException {
+        var matrix = convert("{\"locations\": [\"Paris\", \"Lyon\", \"Montpellier\"],"
+                + " \"distances\": [[0, 465, 65535], [465, 0, 303], [null, 303, 0]]}");
+        assertEquals(List.of("Paris", "Lyon", "Montpellier"), matrix.getLocations());
+        assertEquals(465, matrix.getDistance(0, 1));
+        // Unsigned, so the largest short distance is kept
+        assertEquals(65535, matrix.getDistance(0, 2));
+        assertEquals(0, matrix.getDistance(2, 0));
+        assertEquals(303, matrix.getDistance(2, 1));
+    }
+
+    @Test
+    void intCellsTest() throws IOException {
+        // Nested in solver options, with a distance too large for a short
+        var matrix = convert("{\"settings\": {\"distanceMatrix\": {\"locations\":"
+                + " [\"Paris\", \"Nouméa\"], \"distances\": [[0, 16744], [70000, 0]]}}}");
+        assertEquals(List.of("Paris", "Nouméa"), matrix.getLocations());
+        assertEquals(16744, matrix.getDistance(0, 1));
+        assertEquals(70000, matrix.getDistance(1, 0));
+        assertEquals(0, matrix.getDistance(1, 1));
+    }
+
+    @Test
+    void badHeaderTest() throws IOException {
+        var file = directory.resolve("bad.dcm");
+        Files.writeString(file, "not a distance matrix");
+        var exception =
+                assertThrows(IllegalArgumentException.class, () -> DistanceMatrixFile.open(file));
+        assertEquals("Not a distance matrix file", exception.getCause().getMessage());
+    }
+
+    @Test
+    void resolveTest() {
+        var directory = Path.of(".").toAbsolutePath().normalize();
+        assertEquals(directory.resolve("matrix.dcm"), DistanceMatrixFile.resolve("matrix.dcm"));
+        assertEquals(directory.resolve("matrix.dcm"),
+                DistanceMatrixFile.resolve("sub/../matrix.dcm"));
+        assertThrows(IllegalArgumentException.class,
+                () -> DistanceMatrixFile.resolve("../matrix.dcm"));
+        assertThrows(IllegalArgumentException.class,
+                () -> DistanceMatrixFile.resolve("sub/../../matrix.dcm"));
+        assertTrue(DistanceMatrixFile.resolve("sub/matrix.dcm").startsWith(directory));
+    }
+}
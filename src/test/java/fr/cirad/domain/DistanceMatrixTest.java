@@ -0,0 +1,54 @@
+package fr.cirad.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DistanceMatrixTest {
+
+    private Location location(String name, Double latitude, Double longitude) {
+        var location = new Location(name);
+        location.latitude = latitude;
+        location.longitude = longitude;
+        return location;
+    }
+
+    @Test
+    void explicitMatrixTest() {
+        var distanceMatrix = new DistanceMatrix(List.of("Centre", "Nord"),
+                new Integer[][] {{0, 3}, {3, 0}});
+        // Works without init, as before coordinates
+        assertEquals(3, distanceMatrix.getDistance("Centre", "Nord"));
+        assertEquals(0, distanceMatrix.getDistance("Centre", "Unknown"));
+    }
+
+    @Test
+    void coordinatesTest() {
+        var paris = location("Paris", 48.8566, 2.3522);
+        var lyon = location("Lyon", 45.7640, 4.8357);
+        var unknown = location("Unknown", null, null);
+        var distanceMatrix = new DistanceMatrix();
+        distanceMatrix.init(List.of(paris, lyon, unknown), null);
+        assertEquals(391, distanceMatrix.getDistance(paris, lyon));
+        // Cached and symmetric
+        assertEquals(391, distanceMatrix.getDistance(lyon, paris));
+        assertEquals(391, distanceMatrix.getDistance(paris, lyon));
+        assertEquals(0, distanceMatrix.getDistance(paris, paris));
+        assertEquals(0, distanceMatrix.getDistance(paris, unknown));
+
+        distanceMatrix.init(List.of(paris, lyon), DistanceMetric.MANHATTAN);
+        assertEquals(531, distanceMatrix.getDistance(paris, lyon));
+    }
+
+    @Test
+    void matrixWinsOverCoordinatesTest() {
+        var paris = location("Paris", 48.8566, 2.3522);
+        var lyon = location("Lyon", 45.7640, 4.8357);
+        var distanceMatrix =
+                new DistanceMatrix(List.of("Paris", "Lyon"), new Integer[][] {{0, 465}, {465, 0}});
+        var marseille = location("Marseille", 43.2965, 5.3698);
+        distanceMatrix.init(List.of(paris, lyon, marseille), null);
+        assertEquals(465, distanceMatrix.getDistance(paris, lyon));
+        assertEquals(278, distanceMatrix.getDistance(lyon, marseille));
+    }
+}
@@ -0,0 +1,69 @@
+package fr.cirad.domain;
+
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.VETOES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class FeasibilityAnalyzerTest {
+
+    @Test
+    void notEnoughProfessionalsTest() {
+        // Four professionals, so at most three possible ones for each committee
+        var options = TestProblems.synthetic(6);
+        options.settings.nbProParticipants = new Range(5, 5);
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        var issues = solution.feasibilityIssues;
+        assertEquals(solution.committees.size(),
+                issues.stream().filter(issue -> issue.contains("at least 5 needed")).count());
+        assertTrue(issues.contains("The 6 committees need at least 30 professional evaluators,"
+                + " the professional participants can fill at most 8"));
+    }
+
+    @Test
+    void matchingBoundTest() {
+        // Enough professional assignments overall, but only two professionals can evaluate four
+        // of the committees
+        var options = TestProblems.synthetic(9);
+        options.settings.numberOfAssignmentsForAProfessional = new Range(3, 3);
+        var excluded = List.of("participant-2", "participant-3", "participant-5",
+                "participant-8");
+        for (var person : options.participants.subList(3, 9)) {
+            if (PersonType.PROFESSIONAL.equals(person.personType)) {
+                person.hasAlreadyInspected = List.of(List.of(), excluded);
+            }
+        }
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertEquals(List.of("At most 16 of the 18 minimum professional seats can be filled,"
+                + " given the committees each participant can join"),
+                solution.feasibilityIssues);
+    }
+
+    @Test
+    void zeroWeightVetoTest() {
+        // Participant-3 vetoes both other professionals
+        var options = TestProblems.fourParticipants("participant-3");
+        options.participants.get(3).vetoes.addAll(options.participants.subList(0, 2));
+        var issues = new CommitteeSolution(UUID.randomUUID(), options).feasibilityIssues;
+        assertTrue(issues.contains(
+                "participant-3: 0 possible professional evaluators, at least 2 needed"));
+
+        options = TestProblems.fourParticipants("participant-3");
+        options.participants.get(3).vetoes.addAll(options.participants.subList(0, 2));
+        options.settings.constraintWeights = Map.of(VETOES, "0hard");
+        assertEquals(List.of(),
+                new CommitteeSolution(UUID.randomUUID(), options).feasibilityIssues);
+    }
+
+    @Test
+    void feasibleTest() {
+        var options = TestProblems.synthetic(12);
+        // Two professionals for each of the twelve committees
+        options.settings.numberOfAssignmentsForAProfessional = new Range(3, 3);
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertTrue(solution.feasibilityIssues.isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package fr.cirad.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import fr.cirad.solver.CommitteeSchedulingConstraintProvider;
+
+/**
+ * Problems shared by the tests, kept apart from the warm-up problem of the application so that
+ * the expectations of the tests do not depend on it.
+ */
+public final class TestProblems {
+
+    private TestProblems() {}
+
+    // Participants spread over four locations and three time slots, two professionals for one
+    // non-professional, each of them evaluated
+    public static SolverOptions synthetic(int participants) {
+        var settings = new Settings();
+        settings.nbProParticipants = new Range(2, 2);
+        settings.numberOfAssignmentsForAProfessional = new Range(2, 2);
+        settings.nbNonProParticipants = new Range(1, 1);
+        settings.numberOfAssignmentsForANonProfessional = new Range(1, 3);
+        settings.nbExternalParticipants = new Range(0, 0);
+        settings.numberOfAssignmentsForAnExternal = new Range(0, 5);
+        settings.travellingDistanceRange = new Range(0, 1_000);
+        settings.committeeMeetingSize = new Range(1, participants);
+        settings.useAvailability = true;
+        settings.shuffleParticipants = false;
+
+        double[][] coordinates = {{48.8566, 2.3522}, {45.7640, 4.8357}, {43.2965, 5.3698},
+                {43.6108, 3.8767}};
+        String[] timeSlots = {"monday", "tuesday", "wednesday"};
+        List<Person> persons = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            var person = new Person("participant-" + i, null);
+            person.personType = i % 3 == 2 ? PersonType.NON_PROFESSIONAL : PersonType.PROFESSIONAL;
+            person.location = new Location("location-" + i % coordinates.length);
+            person.location.latitude = coordinates[i % coordinates.length][0];
+            person.location.longitude = coordinates[i % coordinates.length][1];
+            person.availability.add(new TimeSlot(timeSlots[i % timeSlots.length], null));
+            person.availability.add(new TimeSlot(timeSlots[(i + 1) % timeSlots.length], null));
+            person.needsEvaluation = true;
+            persons.add(person);
+        }
+
+        var options = new SolverOptions();
+        options.settings = settings;
+        options.participants = persons;
+        return options;
+    }
+
+    /**
+     * Three professionals and a non-professional, participant-2, each available on two of the
+     * three time slots, without travelling limit in practice.
+     *
+     * @param evaluated The names of the participants to evaluate.
+     */
+    public static SolverOptions fourParticipants(String... evaluated) {
+        var options = synthetic(4);
+        options.settings.travellingDistanceRange = new Range(0, 10_000);
+        for (var person : options.participants) {
+            person.needsEvaluation = List.of(evaluated).contains(person.name);
+        }
+        return options;
+    }
+
+    /**
+     * The domain and the constraints, for the tests building their solvers without the
+     * application.
+     */
+    public static SolverConfig solverConfig() {
+        return new SolverConfig().withSolutionClass(CommitteeSolution.class)
+                .withEntityClasses(Committee.class, CommitteeAssignment.class)
+                .withConstraintProviderClass(CommitteeSchedulingConstraintProvider.class);
+    }
+}
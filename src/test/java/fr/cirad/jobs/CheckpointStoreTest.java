@@ -0,0 +1,153 @@
+package fr.cirad.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.SolutionSnapshot;
+import fr.cirad.domain.SolverOptions;
+import fr.cirad.domain.TestProblems;
+import fr.cirad.rest.AdmissionControl;
+import fr.cirad.rest.CommitteeSolutionResource;
+import fr.cirad.solver.SolverProfiles;
+
+class CheckpointStoreTest {
+
+    private static final Duration SPENT_LIMIT = Duration.ofMinutes(5);
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Best solution of each job, and the jobs started with their options and snapshot
+    private final Map<UUID, CommitteeSolution> bestSolutions = new HashMap<>();
+    private final Map<UUID, SolverOptions> resumedOptions = new HashMap<>();
+    private final Map<UUID, SolutionSnapshot> resumedSnapshots = new HashMap<>();
+
+    private CheckpointStore checkpointStore() {
+        var checkpointStore = new CheckpointStore();
+        checkpointStore.enabled = true;
+        checkpointStore.directory = directory.toString();
+        // Only the explicit checkpoints of the tests
+        checkpointStore.interval = Duration.ofHours(1);
+        checkpointStore.objectMapper = objectMapper;
+        checkpointStore.jobStore = new JobStore();
+        checkpointStore.jobStore.mode = JobMode.STANDALONE;
+        checkpointStore.log = Logger.getLogger(CheckpointStore.class);
+        checkpointStore.admissionControl = new AdmissionControl() {
+            @Override
+            public void admit(UUID id, SolverOptions options) {
+            }
+
+            @Override
+            public synchronized void release(UUID id) {
+            }
+        };
+        checkpointStore.solverProfiles = new SolverProfiles() {
+            @Override
+            public Optional<Duration> getSpentLimit(SolverOptions options) {
+                return Optional.of(options.spentLimitSeconds != null
+                        ? Duration.ofSeconds(options.spentLimitSeconds)
+                        : SPENT_LIMIT);
+            }
+        };
+        checkpointStore.resource = new CommitteeSolutionResource() {
+            @Override
+            public CommitteeSolution findById(UUID id) {
+                return bestSolutions.get(id);
+            }
+
+            @Override
+            public CommitteeSolution startSolving(UUID id, SolverOptions options,
+                    SolutionSnapshot snapshot, Consumer<UUID> terminationListener) {
+                resumedOptions.put(id, options);
+                resumedSnapshots.put(id, snapshot);
+                return bestSolutions.get(id);
+            }
+        };
+        checkpointStore.onStart(null);
+        return checkpointStore;
+    }
+
+    // The committee of the last participant with the first one as evaluator
+    private CommitteeSolution solution(UUID id) {
+        var solution = new CommitteeSolution(id, TestProblems.fourParticipants("participant-3"));
+        var committee = solution.committees.get(0);
+        committee.timeSlot = solution.timeSlots.get(0);
+        solution.committeeAssignments.get(0).committee = committee;
+        return solution;
+    }
+
+    @Test
+    void resumeTest() throws IOException {
+        var checkpointStore = checkpointStore();
+        var id = UUID.randomUUID();
+        checkpointStore.start(id, objectMapper
+                .writeValueAsBytes(TestProblems.fourParticipants("participant-3")));
+        var solution = solution(id);
+        bestSolutions.put(id, solution);
+        // Solving for a minute before the crash
+        checkpointStore.startTimes.put(id, System.nanoTime() - TimeUnit.MINUTES.toNanos(1));
+        checkpointStore.checkpoint();
+        checkpointStore.onStop(null);
+
+        var restarted = checkpointStore();
+        var snapshot = resumedSnapshots.get(id);
+        assertNotNull(snapshot);
+        assertEquals(SolutionSnapshot.of(solution).committees, snapshot.committees);
+        assertEquals(SolutionSnapshot.of(solution).timeSlots, snapshot.timeSlots);
+        // Only what is left of the spent limit
+        assertEquals(SPENT_LIMIT.minusMinutes(1).toSeconds(),
+                resumedOptions.get(id).spentLimitSeconds);
+
+        // The time spent before the restart still counts
+        restarted.checkpoint();
+        long spent = Long.parseLong(Files.readString(directory.resolve(id + ".spent")));
+        assertTrue(spent >= TimeUnit.MINUTES.toMillis(1));
+
+        restarted.finish(id);
+        assertFalse(Files.exists(directory.resolve(id + ".json")));
+        assertFalse(Files.exists(directory.resolve(id + ".snapshot.gz")));
+        assertFalse(Files.exists(directory.resolve(id + ".spent")));
+        restarted.onStop(null);
+    }
+
+    @Test
+    void unchangedBestSolutionTest() throws IOException {
+        var checkpointStore = checkpointStore();
+        var id = UUID.randomUUID();
+        checkpointStore.start(id, objectMapper
+                .writeValueAsBytes(TestProblems.fourParticipants("participant-3")));
+        var snapshotFile = directory.resolve(id + ".snapshot.gz");
+        bestSolutions.put(id, solution(id));
+        checkpointStore.checkpoint();
+        assertTrue(Files.exists(snapshotFile));
+
+        // Not written again at the next interval, as long as the best solution is the same
+        Files.delete(snapshotFile);
+        checkpointStore.checkpoint();
+        assertFalse(Files.exists(snapshotFile));
+        assertTrue(Files.exists(directory.resolve(id + ".spent")));
+
+        bestSolutions.put(id, solution(id));
+        checkpointStore.checkpoint();
+        assertTrue(Files.exists(snapshotFile));
+        checkpointStore.onStop(null);
+    }
+}
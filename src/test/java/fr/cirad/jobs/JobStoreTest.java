@@ -0,0 +1,82 @@
+package fr.cirad.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.SolutionSnapshot;
+
+class JobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private JobStore worker() {
+        var jobStore = new JobStore();
+        jobStore.mode = JobMode.WORKER;
+        jobStore.directory = directory.toString();
+        jobStore.lease = Duration.ofMinutes(1);
+        jobStore.objectMapper = new ObjectMapper();
+        jobStore.init();
+        return jobStore;
+    }
+
+    @Test
+    void expiredClaimTest() throws IOException {
+        var first = worker();
+        var second = worker();
+        var id = UUID.randomUUID();
+        first.enqueue(id, new byte[0]);
+
+        assertTrue(first.claim(id));
+        assertFalse(second.claim(id));
+        assertTrue(first.renew(id));
+        assertFalse(second.renew(id));
+        assertEquals(List.of(), second.requeueExpiredClaims());
+
+        // The first worker crashed without renewing its claim
+        Files.setLastModifiedTime(directory.resolve("running").resolve(id.toString()),
+                FileTime.from(Instant.now().minus(Duration.ofMinutes(2))));
+        assertEquals(List.of(id), second.requeueExpiredClaims());
+        assertEquals(SolverStatus.SOLVING_SCHEDULED, second.getStatus(id));
+
+        assertTrue(second.claim(id));
+        assertFalse(first.renew(id));
+        assertTrue(second.renew(id));
+        assertEquals(SolverStatus.SOLVING_ACTIVE, first.getStatus(id));
+    }
+
+    @Test
+    void serializedEventTest() throws IOException {
+        var jobStore = worker();
+        var snapshot = new SolutionSnapshot();
+        snapshot.id = UUID.randomUUID();
+        snapshot.committees.put(1L, "participant-3");
+        var file = directory.resolve("events.jfr");
+        try (var recording = new Recording()) {
+            recording.enable("fr.cirad.SolutionSerialized");
+            recording.start();
+            jobStore.saveSnapshot(snapshot);
+            recording.stop();
+            recording.dump(file);
+        }
+        var event = RecordingFile.readAllEvents(file).get(0);
+        assertEquals(snapshot.id.toString(), event.getString("jobId"));
+        assertEquals("snapshot", event.getString("target"));
+        assertEquals(Files.size(directory.resolve("solutions").resolve(snapshot.id + ".json")),
+                event.getLong("size"));
+    }
+}
@@ -0,0 +1,68 @@
+package fr.cirad.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JobEventsTest {
+
+    @TempDir
+    Path directory;
+
+    // Records the events committed by the action
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (var recording = new Recording()) {
+            for (var name : List.of("fr.cirad.JobSubmitted", "fr.cirad.JobSolving",
+                    "fr.cirad.NewBestSolution", "fr.cirad.SolutionSerialized")) {
+                recording.enable(name);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            var file = directory.resolve("events.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    void jobIdTest() throws IOException {
+        var id = UUID.randomUUID();
+        var events = record(() -> {
+            new JobEvents.Submitted().commit(id, 12);
+            var solving = new JobEvents.Solving();
+            solving.begin(id, "default");
+            new JobEvents.NewBestSolution().commit(id, "0hard/0medium/-3soft", 1);
+            solving.commit("0hard/0medium/-3soft", false);
+            new JobEvents.Serialized().commit(id, "response", 2_048);
+        });
+
+        var submitted = find(events, "fr.cirad.JobSubmitted");
+        assertEquals(id.toString(), submitted.getString("jobId"));
+        assertEquals(12, submitted.getInt("participants"));
+        var solving = find(events, "fr.cirad.JobSolving");
+        assertEquals(id.toString(), solving.getString("jobId"));
+        assertEquals("default", solving.getString("solver"));
+        assertFalse(solving.getBoolean("failed"));
+        var newBestSolution = find(events, "fr.cirad.NewBestSolution");
+        assertEquals(id.toString(), newBestSolution.getString("jobId"));
+        assertEquals(1, newBestSolution.getLong("count"));
+        var serialized = find(events, "fr.cirad.SolutionSerialized");
+        assertEquals(id.toString(), serialized.getString("jobId"));
+        assertEquals("response", serialized.getString("target"));
+        assertEquals(2_048, serialized.getLong("size"));
+    }
+}
@@ -0,0 +1,87 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import fr.cirad.domain.FootprintEstimator;
+import fr.cirad.domain.PortfolioMember;
+import fr.cirad.domain.TestProblems;
+import io.quarkus.runtime.configuration.MemorySize;
+
+class AdmissionControlTest {
+
+    private AdmissionControl admissionControl(long budget) {
+        return admissionControl(budget, 8);
+    }
+
+    private AdmissionControl admissionControl(long budget, int solvers) {
+        var admissionControl = new AdmissionControl();
+        admissionControl.enabled = true;
+        admissionControl.heapBudget = Optional.of(new MemorySize(BigInteger.valueOf(budget)));
+        admissionControl.solverBudget = Optional.of(solvers);
+        return admissionControl;
+    }
+
+    @Test
+    void budgetTest() {
+        var problem = TestProblems.synthetic(100);
+        var estimate = FootprintEstimator.estimate(problem);
+        var admissionControl = admissionControl(estimate * 5 / 2);
+        var first = UUID.randomUUID();
+        var third = UUID.randomUUID();
+        assertTrue(admissionControl.tryAdmit(first, problem));
+        // Admitting the same job twice does not count it twice
+        assertTrue(admissionControl.tryAdmit(first, problem));
+        assertTrue(admissionControl.tryAdmit(UUID.randomUUID(), problem));
+        assertFalse(admissionControl.tryAdmit(third, problem));
+
+        admissionControl.release(first);
+        assertTrue(admissionControl.tryAdmit(third, problem));
+    }
+
+    @Test
+    void solverBudgetTest() {
+        var problem = TestProblems.synthetic(10);
+        var portfolio = TestProblems.synthetic(10);
+        portfolio.portfolio = List.of(new PortfolioMember(), new PortfolioMember());
+        var admissionControl = admissionControl(Long.MAX_VALUE, 3);
+        var first = UUID.randomUUID();
+        assertTrue(admissionControl.tryAdmit(first, problem));
+        assertTrue(admissionControl.tryAdmit(UUID.randomUUID(), portfolio));
+        // Each member of a portfolio counts as a solver
+        assertFalse(admissionControl.tryAdmit(UUID.randomUUID(), problem));
+
+        admissionControl.release(first);
+        assertTrue(admissionControl.tryAdmit(UUID.randomUUID(), problem));
+
+        portfolio.portfolio = List.of(new PortfolioMember(), new PortfolioMember(),
+                new PortfolioMember(), new PortfolioMember());
+        assertFalse(admissionControl.fits(portfolio));
+    }
+
+    @Test
+    void estimateGrowsWithProblemTest() {
+        var small = FootprintEstimator.estimate(TestProblems.synthetic(100));
+        var large = FootprintEstimator.estimate(TestProblems.synthetic(1_000));
+        assertTrue(large > small);
+
+        var admissionControl = admissionControl(small * 2);
+        assertTrue(admissionControl.fits(TestProblems.synthetic(100)));
+        assertFalse(admissionControl.fits(TestProblems.synthetic(1_000)));
+    }
+
+    @Test
+    void portfolioEstimateTest() {
+        var problem = TestProblems.synthetic(100);
+        var single = FootprintEstimator.estimate(problem);
+        problem.portfolio = List.of(new PortfolioMember(), new PortfolioMember());
+        var portfolio = FootprintEstimator.estimate(problem);
+        // The participants are shared by the solvers
+        assertTrue(portfolio > single);
+        assertTrue(portfolio < single * 2);
+    }
+}
@@ -0,0 +1,98 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TestProblems;
+
+class ChangeTrackerTest {
+
+    private ChangeTracker changeTracker(int historySize) {
+        var changeTracker = new ChangeTracker();
+        changeTracker.historySize = historySize;
+        return changeTracker;
+    }
+
+    private CommitteeSolution solution() {
+        return new CommitteeSolution(UUID.randomUUID(), TestProblems.synthetic(12));
+    }
+
+    @Test
+    void changesSinceVersionTest() {
+        var changeTracker = changeTracker(8);
+        var solution = solution();
+        changeTracker.record(solution);
+        var first = changeTracker.getChanges(solution.id, 0, SolverStatus.SOLVING_ACTIVE,
+                () -> solution);
+        assertTrue(first.full);
+
+        var assignment = solution.committeeAssignments.get(0);
+        assignment.committee = assignment.getPossibleCommittees().get(0);
+        changeTracker.record(solution);
+        var second = changeTracker.getChanges(solution.id, first.version,
+                SolverStatus.SOLVING_ACTIVE, () -> solution);
+        assertFalse(second.full);
+        assertEquals(first.version + 1, second.version);
+        assertEquals(Map.of(assignment.id, assignment.committee.id), second.committees);
+        assertTrue(second.timeSlots.isEmpty());
+
+        // Unassigned again, and already known
+        assignment.committee = null;
+        changeTracker.record(solution);
+        var third = changeTracker.getChanges(solution.id, second.version,
+                SolverStatus.SOLVING_ACTIVE, () -> solution);
+        assertTrue(third.committees.containsKey(assignment.id));
+        assertNull(third.committees.get(assignment.id));
+        var none = changeTracker.getChanges(solution.id, third.version,
+                SolverStatus.SOLVING_ACTIVE, () -> solution);
+        assertFalse(none.full);
+        assertTrue(none.committees.isEmpty());
+    }
+
+    @Test
+    void tooFarBehindTest() {
+        var changeTracker = changeTracker(1);
+        var solution = solution();
+        changeTracker.record(solution);
+        long first = changeTracker.getChanges(solution.id, 0, SolverStatus.SOLVING_ACTIVE,
+                () -> solution).version;
+        for (var committee : solution.committees.subList(0, 3)) {
+            committee.timeSlot = solution.timeSlots.get(0);
+            changeTracker.record(solution);
+        }
+        var changes = changeTracker.getChanges(solution.id, first, SolverStatus.SOLVING_ACTIVE,
+                () -> solution);
+        assertTrue(changes.full);
+        assertEquals(first + 3, changes.version);
+        assertEquals(3, changes.timeSlots.size());
+    }
+
+    @Test
+    void evictedHistoryTest() {
+        var changeTracker = changeTracker(8);
+        var solution = solution();
+        changeTracker.record(solution);
+        var assignment = solution.committeeAssignments.get(0);
+        assignment.committee = assignment.getPossibleCommittees().get(0);
+        changeTracker.record(solution);
+        long known = changeTracker.getChanges(solution.id, 0, SolverStatus.SOLVING_ACTIVE,
+                () -> solution).version;
+
+        // Recorded again from scratch, with a change the client does not have
+        changeTracker.histories.remove(solution.id);
+        changeTracker.record(solution);
+        assignment.committee = null;
+        changeTracker.record(solution);
+        var changes = changeTracker.getChanges(solution.id, known, SolverStatus.SOLVING_ACTIVE,
+                () -> solution);
+        assertTrue(changes.full);
+        assertTrue(changes.version > known);
+        assertNull(changes.committees.get(assignment.id));
+    }
+}
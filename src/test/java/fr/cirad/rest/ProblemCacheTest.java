@@ -0,0 +1,58 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import fr.cirad.domain.Person;
+import fr.cirad.domain.Range;
+import fr.cirad.domain.Settings;
+import fr.cirad.domain.SolverOptions;
+
+class ProblemCacheTest {
+
+    private SolverOptions options(String... names) {
+        var options = new SolverOptions();
+        options.settings = new Settings();
+        options.settings.nbProParticipants = new Range(2, 2);
+        options.participants = new ArrayList<>();
+        for (var name : names) {
+            options.participants.add(new Person(name, null));
+        }
+        return options;
+    }
+
+    @Test
+    void hashIgnoresParticipantsOrderTest() {
+        var cache = new ProblemCache();
+        assertEquals(cache.hash(options("a", "b", "c")), cache.hash(options("c", "a", "b")));
+        assertNotEquals(cache.hash(options("a", "b", "c")), cache.hash(options("a", "b")));
+
+        var otherSettings = options("a", "b", "c");
+        otherSettings.settings.nbProParticipants = new Range(1, 2);
+        assertNotEquals(cache.hash(options("a", "b", "c")), cache.hash(otherSettings));
+
+        var refused = options("a", "b", "c");
+        refused.refuseInfeasible = true;
+        assertNotEquals(cache.hash(options("a", "b", "c")), cache.hash(refused));
+    }
+
+    @Test
+    void registerReturnsKnownJobTest() {
+        var cache = new ProblemCache();
+        cache.maxSize = 2;
+        cache.init();
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        assertFalse(cache.register("hash", first, id -> true).isPresent());
+        assertEquals(first, cache.register("hash", second, id -> true).get());
+        // The first job is not available anymore, so the second one takes its place
+        assertTrue(cache.register("hash", second, id -> false).isEmpty());
+        assertEquals(second, cache.register("hash", UUID.randomUUID(), List.of(second)::contains)
+                .get());
+    }
+}
@@ -0,0 +1,74 @@
+package fr.cirad.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.cirad.domain.CommitteeAssignment;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TestProblems;
+
+class SolutionExportTest {
+
+    private static final String EVALUATED = "Dupont, \"Jo\"\nJr";
+    private static final String EVALUATOR = "Martin, A";
+
+    private SolutionExport solutionExport() {
+        var solutionExport = new SolutionExport();
+        solutionExport.objectMapper = new ObjectMapper();
+        return solutionExport;
+    }
+
+    // The committee of the last participant scheduled, with the first one as its only evaluator
+    private CommitteeSolution solution() {
+        var options = TestProblems.fourParticipants("participant-3");
+        options.participants.get(0).name = EVALUATOR;
+        options.participants.get(3).name = EVALUATED;
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        var committee = solution.committees.get(0);
+        committee.timeSlot = solution.timeSlots.get(0);
+        assignment(solution).committee = committee;
+        return solution;
+    }
+
+    private CommitteeAssignment assignment(CommitteeSolution solution) {
+        return solution.committeeAssignments.stream()
+                .filter(assignment -> EVALUATOR.equals(assignment.assignedPerson.name))
+                .findFirst().orElseThrow();
+    }
+
+    private String write(StreamingOutput streamingOutput) throws IOException {
+        var output = new ByteArrayOutputStream();
+        streamingOutput.write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void csvQuotingTest() throws IOException {
+        var solution = solution();
+        var distance = assignment(solution).getDistance();
+        var timeSlot = solution.timeSlots.get(0).name;
+        // Quoted when holding a comma, a quote or a line break, the quotes doubled
+        assertEquals("committee,evaluated,evaluator,type,timeslot,distance\r\n"
+                + "\"Dupont, \"\"Jo\"\"\nJr\",\"Dupont, \"\"Jo\"\"\nJr\",\"Martin, A\","
+                + "professional," + timeSlot + "," + distance + "\r\n",
+                write(solutionExport().csv(solution)));
+    }
+
+    @Test
+    void ndjsonTest() throws IOException {
+        var solution = solution();
+        var distance = assignment(solution).getDistance();
+        var timeSlot = solution.timeSlots.get(0).name;
+        // One object per line, the distance as a number
+        assertEquals("{\"committee\":\"Dupont, \\\"Jo\\\"\\nJr\","
+                + "\"evaluated\":\"Dupont, \\\"Jo\\\"\\nJr\",\"evaluator\":\"Martin, A\","
+                + "\"type\":\"professional\",\"timeslot\":\"" + timeSlot + "\","
+                + "\"distance\":" + distance + "}\n",
+                write(solutionExport().ndjson(solution)));
+    }
+}
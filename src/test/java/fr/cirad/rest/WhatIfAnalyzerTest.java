@@ -0,0 +1,147 @@
+package fr.cirad.rest;
+
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.EVALUATORS_AVAILABILITY;
+import static fr.cirad.solver.CommitteeSchedulingConstraintProvider.MIN_NON_PROFESSIONAL_EVALUATORS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+import java.util.UUID;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.CommitteeSolutionCloner;
+import fr.cirad.domain.TestProblems;
+import fr.cirad.domain.WhatIfEdit;
+
+class WhatIfAnalyzerTest {
+
+    private static final SolutionManager<CommitteeSolution, HardMediumSoftScore> SOLUTION_MANAGER =
+            SolutionManager.create(SolverFactory.create(TestProblems.solverConfig()));
+
+    private final WhatIfAnalyzer whatIfAnalyzer = new WhatIfAnalyzer();
+
+    WhatIfAnalyzerTest() {
+        whatIfAnalyzer.solutionManager = SOLUTION_MANAGER;
+    }
+
+    // The committee of the fourth participant, evaluated by the three others on monday
+    private CommitteeSolution solution() {
+        var solution = new CommitteeSolution(UUID.randomUUID(),
+                TestProblems.fourParticipants("participant-3"));
+        var committee = solution.committees.get(0);
+        committee.timeSlot = solution.timeSlots.get(0);
+        for (var name : List.of("participant-0", "participant-1", "participant-2")) {
+            var assignment = solution.committeeAssignments.stream()
+                    .filter(a -> a.assignedPerson.name.equals(name)).findFirst().get();
+            assignment.committee = committee;
+            committee.assignments.add(assignment);
+        }
+        SOLUTION_MANAGER.update(solution);
+        return solution;
+    }
+
+    private static WhatIfEdit move(String evaluator, String fromCommittee, String toCommittee) {
+        var edit = new WhatIfEdit();
+        edit.evaluator = evaluator;
+        edit.fromCommittee = fromCommittee;
+        edit.toCommittee = toCommittee;
+        return edit;
+    }
+
+    private static WhatIfEdit reschedule(String committee, String timeSlot) {
+        var edit = new WhatIfEdit();
+        edit.committee = committee;
+        edit.timeSlot = timeSlot;
+        return edit;
+    }
+
+    // The working copy has the planning variables and the committee assignments of the source
+    private void assertRestored(CommitteeSolution source) {
+        var copy = whatIfAnalyzer.workingCopies.get(source.id).copy;
+        assertNotSame(source, copy);
+        for (int i = 0; i < source.committees.size(); i++) {
+            var committee = source.committees.get(i);
+            var copyCommittee = copy.committees.get(i);
+            assertEquals(committee.timeSlot, copyCommittee.timeSlot);
+            assertEquals(committee.assignments.stream().map(a -> a.id).toList(),
+                    copyCommittee.assignments.stream().map(a -> a.id).toList());
+        }
+        for (int i = 0; i < source.committeeAssignments.size(); i++) {
+            var committee = source.committeeAssignments.get(i).committee;
+            var copyCommittee = copy.committeeAssignments.get(i).committee;
+            assertEquals(committee == null ? null : committee.id,
+                    copyCommittee == null ? null : copyCommittee.id);
+        }
+    }
+
+    @Test
+    void scoredAgainstBaselineTest() {
+        var solution = solution();
+        assertEquals(HardMediumSoftScore.ZERO, solution.score);
+        // The only non-professional, also one of the two evaluators available on monday
+        var result = whatIfAnalyzer.analyze(solution,
+                List.of(move("participant-2", "participant-3", null)));
+        var score = HardMediumSoftScore.parseScore(result.score);
+        assertEquals(score.subtract(solution.score),
+                HardMediumSoftScore.parseScore(result.scoreDelta));
+        assertEquals(HardMediumSoftScore.ofHard(-102), score);
+        assertEquals(List.of(MIN_NON_PROFESSIONAL_EVALUATORS, EVALUATORS_AVAILABILITY),
+                List.copyOf(result.brokenConstraints.keySet()));
+
+        // Rescheduled on tuesday, when participant-1 is available with participant-0
+        var rescheduled = whatIfAnalyzer.analyze(solution,
+                List.of(move("participant-2", "participant-3", null),
+                        reschedule("participant-3", "tuesday")));
+        assertEquals(HardMediumSoftScore.ofHard(-100),
+                HardMediumSoftScore.parseScore(rescheduled.score));
+    }
+
+    @Test
+    void restoredTest() {
+        var solution = solution();
+        whatIfAnalyzer.analyze(solution, List.of(move("participant-0", "participant-3", null),
+                reschedule("participant-3", null)));
+        assertRestored(solution);
+
+        // Invalid after two applied edits
+        assertThrows(BadRequestException.class, () -> whatIfAnalyzer.analyze(solution,
+                List.of(move("participant-1", "participant-3", null),
+                        reschedule("participant-3", "tuesday"),
+                        move("participant-2", "participant-3", "unknown"))));
+        assertRestored(solution);
+        var unedited = whatIfAnalyzer.analyze(solution, List.of());
+        assertEquals(HardMediumSoftScore.ZERO, HardMediumSoftScore.parseScore(unedited.score));
+        assertEquals(HardMediumSoftScore.ZERO,
+                HardMediumSoftScore.parseScore(unedited.scoreDelta));
+    }
+
+    @Test
+    void newBestSolutionTest() {
+        var solution = solution();
+        whatIfAnalyzer.analyze(solution, List.of());
+        var workingCopy = whatIfAnalyzer.workingCopies.get(solution.id);
+
+        // A new best solution is saved under the same id, with participant-2 unassigned
+        var bestSolution = new CommitteeSolutionCloner().cloneSolution(solution);
+        var assignment = bestSolution.committeeAssignments.stream()
+                .filter(a -> a.assignedPerson.name.equals("participant-2")
+                        && a.committee != null)
+                .findFirst().get();
+        assignment.committee.assignments.remove(assignment);
+        assignment.committee = null;
+        SOLUTION_MANAGER.update(bestSolution);
+
+        var result = whatIfAnalyzer.analyze(bestSolution, List.of());
+        var rebuilt = whatIfAnalyzer.workingCopies.get(solution.id);
+        assertNotSame(workingCopy, rebuilt);
+        assertSame(bestSolution, rebuilt.source);
+        assertEquals(bestSolution.score, HardMediumSoftScore.parseScore(result.score));
+        assertEquals(HardMediumSoftScore.ZERO, HardMediumSoftScore.parseScore(result.scoreDelta));
+        assertRestored(bestSolution);
+    }
+}
@@ -0,0 +1,28 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TestProblems;
+
+class ExactSearchTest {
+
+    private static final long DEADLINE_NANOS = 10_000_000_000L;
+
+    @Test
+    void emptyProblemTest() {
+        var options = TestProblems.synthetic(0);
+        options.participants = new ArrayList<>();
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertTrue(solution.feasibilityIssues.isEmpty());
+        var search = new ExactSearch(solution, System.nanoTime() + DEADLINE_NANOS);
+        var outcome = ForkJoinPool.commonPool().invoke(search.rootTask());
+        assertEquals(ExactSearch.Outcome.FOUND, outcome);
+        assertTrue(search.applySolution());
+        assertTrue(search.getExploredNodes() > 0);
+    }
+}
@@ -0,0 +1,85 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import java.util.UUID;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.ExactResult.Status;
+import fr.cirad.domain.TestProblems;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class ExactSolverTest {
+
+    @Inject
+    ExactSolver exactSolver;
+
+    @Inject
+    SolutionManager<CommitteeSolution, HardMediumSoftScore> solutionManager;
+
+    private CommitteeSolution problem(String... evaluated) {
+        return new CommitteeSolution(UUID.randomUUID(), TestProblems.fourParticipants(evaluated));
+    }
+
+    @Test
+    void optimalTest() {
+        var solution = problem("participant-3");
+        assertTrue(solution.feasibilityIssues.isEmpty());
+        var result = exactSolver.solve(solution, null);
+        assertEquals(Status.OPTIMAL, result.status);
+        assertEquals(HardMediumSoftScore.ZERO, solutionManager.update(solution));
+    }
+
+    @Test
+    void infeasibleTest() {
+        // Each of the first two professionals can only be evaluated by the other one and the
+        // third, which breaks the non-reciprocity
+        var solution = problem("participant-0", "participant-1");
+        assertTrue(solution.feasibilityIssues.isEmpty());
+        var result = exactSolver.solve(solution, null);
+        assertEquals(Status.INFEASIBLE, result.status);
+        assertTrue(result.certificate.get(0).contains("exhaustive search"));
+    }
+
+    @Test
+    void zeroWeightVetoTest() {
+        // Participant-3 vetoes both other professionals, so only a zero weight veto leaves
+        // enough professionals to evaluate it
+        var options = TestProblems.fourParticipants("participant-3");
+        var participants = options.participants;
+        participants.get(3).vetoes.addAll(participants.subList(0, 2));
+        var vetoed = new CommitteeSolution(UUID.randomUUID(), options);
+        assertEquals(Status.INFEASIBLE, exactSolver.solve(vetoed, null).status);
+
+        options = TestProblems.fourParticipants("participant-3");
+        participants = options.participants;
+        participants.get(3).vetoes.addAll(participants.subList(0, 2));
+        options.settings.constraintWeights =
+                Map.of(CommitteeSchedulingConstraintProvider.VETOES, "0hard");
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertEquals(Status.OPTIMAL, exactSolver.solve(solution, null).status);
+        assertEquals(HardMediumSoftScore.ZERO, solutionManager.update(solution));
+    }
+
+    @Test
+    void deadlineTest() {
+        var result = exactSolver.solve(problem("participant-0", "participant-1"), 0L);
+        assertEquals(Status.UNKNOWN, result.status);
+        assertTrue(result.certificate.get(0).startsWith("Time limit of 0 seconds"));
+    }
+
+    @Test
+    void softWeightTest() {
+        var options = TestProblems.synthetic(4);
+        options.settings.constraintWeights =
+                Map.of(CommitteeSchedulingConstraintProvider.NON_RECIPROCITY, "1soft");
+        var solution = new CommitteeSolution(UUID.randomUUID(), options);
+        assertThrows(IllegalArgumentException.class, () -> exactSolver.solve(solution, null));
+    }
+}
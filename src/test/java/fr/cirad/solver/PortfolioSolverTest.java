@@ -0,0 +1,130 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TestProblems;
+
+class PortfolioSolverTest {
+
+    private static final SolverFactory<CommitteeSolution> SOLVER_FACTORY =
+            SolverFactory.create(TestProblems.solverConfig());
+
+    private static final Duration PATIENCE = Duration.ofSeconds(1);
+
+    private final List<CommitteeSolution> bestSolutions = new ArrayList<>();
+    private final CompletableFuture<UUID> terminated = new CompletableFuture<>();
+
+    private PortfolioSolver.Portfolio portfolio(int members) {
+        var portfolioSolver = new PortfolioSolver();
+        portfolioSolver.config = new SolverProfilesConfig() {
+
+            @Override
+            public String defaultProfile() {
+                return "balanced";
+            }
+
+            @Override
+            public Map<String, Profile> profiles() {
+                return Map.of();
+            }
+
+            @Override
+            public Phased phased() {
+                return null;
+            }
+
+            @Override
+            public RuinAndRecreate ruinAndRecreate() {
+                return null;
+            }
+
+            @Override
+            public Portfolio portfolio() {
+                return new Portfolio() {
+
+                    @Override
+                    public Duration patience() {
+                        return PATIENCE;
+                    }
+
+                    @Override
+                    public Optional<Integer> maxMembers() {
+                        return Optional.empty();
+                    }
+                };
+            }
+        };
+        portfolioSolver.log = Logger.getLogger(PortfolioSolver.class);
+        var problem = new CommitteeSolution(UUID.randomUUID(), TestProblems.synthetic(6));
+        var portfolio = portfolioSolver.new Portfolio(problem.id, bestSolutions::add,
+                terminated::complete);
+        for (int i = 0; i < members; i++) {
+            portfolio.members.add(
+                    portfolio.new Member("#" + i, SOLVER_FACTORY.buildSolver(), problem));
+        }
+        return portfolio;
+    }
+
+    private static CommitteeSolution scored(HardMediumSoftScore score) {
+        var solution = new CommitteeSolution();
+        solution.score = score;
+        return solution;
+    }
+
+    @Test
+    void dominatedMemberTest() {
+        var portfolio = portfolio(2);
+        var behind = portfolio.members.get(0);
+        var ahead = portfolio.members.get(1);
+        portfolio.improved(behind, scored(HardMediumSoftScore.ofHard(-10)));
+        portfolio.improved(ahead, scored(HardMediumSoftScore.ofHard(-1)));
+        assertEquals(2, bestSolutions.size());
+
+        // Behind, but improved within the patience
+        portfolio.terminateDominated();
+        assertFalse(behind.solver.isTerminateEarly());
+
+        behind.lastImprovement = System.nanoTime() - PATIENCE.multipliedBy(2).toNanos();
+        portfolio.terminateDominated();
+        assertTrue(behind.solver.isTerminateEarly());
+        assertFalse(ahead.solver.isTerminateEarly());
+    }
+
+    @Test
+    void zeroScoreTest() {
+        var portfolio = portfolio(3);
+        portfolio.improved(portfolio.members.get(1), scored(HardMediumSoftScore.ofSoft(-5)));
+        assertFalse(portfolio.members.get(0).solver.isTerminateEarly());
+
+        portfolio.improved(portfolio.members.get(1), scored(HardMediumSoftScore.ZERO));
+        portfolio.members.forEach(member -> assertTrue(member.solver.isTerminateEarly()));
+    }
+
+    @Test
+    void stopSolvingTest() throws Exception {
+        var portfolio = portfolio(3);
+        // Before the members start solving, which resets the early termination of their solver
+        portfolio.terminateEarly();
+        portfolio.start();
+        assertEquals(portfolio.members.get(0).problem.id, terminated.get(10, TimeUnit.SECONDS));
+        assertEquals(SolverStatus.NOT_SOLVING, portfolio.getSolverStatus());
+        portfolio.members.forEach(member -> assertNull(member.problem.score));
+        assertTrue(bestSolutions.isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package fr.cirad.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.phase.custom.CustomPhaseConfig;
+import fr.cirad.domain.CommitteeSolution;
+import fr.cirad.domain.TestProblems;
+
+class RuinAndRecreatePhaseTest {
+
+    // The ruin and recreate phase alone
+    private static final SolverFactory<CommitteeSolution> SOLVER_FACTORY =
+            SolverFactory.create(TestProblems.solverConfig().withPhases(new CustomPhaseConfig()
+                    .withCustomPhaseCommandClassList(List.of(RuinAndRecreatePhase.class))));
+
+    @Test
+    void brokenCommitteeTest() {
+        // Three evaluators can join the committee of the only participant evaluated
+        var problem = new CommitteeSolution(UUID.randomUUID(),
+                TestProblems.fourParticipants("participant-3"));
+
+        // Only one of the two professionals and no non-professional
+        var committee = problem.committees.get(0);
+        committee.timeSlot = committee.evaluatedPerson.availability.get(0);
+        var assignment = problem.committeeAssignments.get(0);
+        assignment.committee = committee;
+        committee.assignments.add(assignment);
+
+        var solutionManager = SolutionManager.create(SOLVER_FACTORY);
+        var brokenScore = solutionManager.update(problem);
+        assertTrue(brokenScore.hardScore() < 0);
+
+        var solution = SOLVER_FACTORY.buildSolver().solve(problem);
+        assertTrue(solution.score.compareTo(brokenScore) >= 0);
+        assertEquals(HardMediumSoftScore.ZERO, solution.score);
+    }
+}